@@ -0,0 +1,57 @@
+package com.zhihuixuexi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 接口限流配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 分段锁数量（取2的幂）
+     */
+    private int stripes = 64;
+
+    /**
+     * 令牌桶总数上限
+     */
+    private int maxEntries = 100000;
+
+    /**
+     * 令牌桶空闲多久后回收（毫秒）
+     */
+    private long idleTimeoutMs = 600000;
+
+    /**
+     * 各接口的限流规则，键为接口名称
+     */
+    private Map<String, Rule> endpoints = new HashMap<>();
+
+    /**
+     * 限流规则：同一IP、同一用户名/邮箱分别计数
+     */
+    @Data
+    public static class Rule {
+
+        private int ipCapacity = 20;
+
+        private double ipRefillPerMinute = 20;
+
+        private int keyCapacity = 5;
+
+        private double keyRefillPerMinute = 5;
+    }
+}
@@ -1,13 +1,23 @@
 package com.zhihuixuexi.config;
 
+import com.zhihuixuexi.security.AuthRecordCache;
+import com.zhihuixuexi.security.JwtAuthenticationFilter;
+import com.zhihuixuexi.security.TokenRevocationRegistry;
+import com.zhihuixuexi.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -19,11 +29,19 @@ import java.util.Arrays;
  */
 @Configuration
 @EnableWebSecurity
+@RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final AuthRecordCache authRecordCache;
+
+    /**
+     * BCrypt成本因子可按部署环境调整，旧哈希会在用户登录时升级
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -33,8 +51,20 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> 
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .exceptionHandling(ex -> ex
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, revocationRegistry, authRecordCache), UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
-                .anyRequest().permitAll()  // 允许所有请求，不做权限控制
+                // 管理员接口：批量导入、导出、批量封禁/解封/删除用户
+                .requestMatchers(HttpMethod.POST, "/users/import").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/users/export").hasRole("ADMIN")
+                .requestMatchers("/users/bulk/**").hasRole("ADMIN")
+                // 需要当前用户身份的任务接口
+                .requestMatchers(HttpMethod.GET, "/tasks/my").authenticated()
+                .requestMatchers(HttpMethod.POST, "/tasks", "/tasks/**").authenticated()
+                .requestMatchers(HttpMethod.PUT, "/tasks/**").authenticated()
+                .requestMatchers(HttpMethod.DELETE, "/tasks/**").authenticated()
+                .anyRequest().permitAll()  // 其余请求暂不做权限控制
             );
 
         return http.build();
@@ -4,11 +4,15 @@ import com.zhihuixuexi.dto.ApiResponse;
 import com.zhihuixuexi.dto.AuthResponse;
 import com.zhihuixuexi.dto.LoginRequest;
 import com.zhihuixuexi.dto.RegisterRequest;
+import com.zhihuixuexi.security.RateLimiter;
 import com.zhihuixuexi.service.AuthService;
+import com.zhihuixuexi.service.UserAvailabilityService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -19,30 +23,65 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuthController {
 
+    private static final String TOO_MANY_REQUESTS = "请求过于频繁，请稍后再试";
+
     private final AuthService authService;
+    private final RateLimiter rateLimiter;
+    private final UserAvailabilityService userAvailabilityService;
 
     /**
      * 发送验证码
      */
     @PostMapping("/send-code")
-    public ApiResponse<Void> sendCode(@RequestBody Map<String, String> request) {
+    public ApiResponse<Void> sendCode(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
         if (email == null || email.isEmpty()) {
             return ApiResponse.error("邮箱不能为空");
         }
+        if (!rateLimiter.tryAcquire("send-code", httpRequest.getRemoteAddr(), email)) {
+            return ApiResponse.error(429, TOO_MANY_REQUESTS);
+        }
         authService.sendVerificationCode(email);
         return ApiResponse.success("验证码已发送", null);
     }
 
+    /**
+     * 检查用户名/邮箱是否可用（注册表单实时校验）
+     */
+    @GetMapping("/availability")
+    public ApiResponse<Map<String, Boolean>> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            HttpServletRequest httpRequest) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            return ApiResponse.error("用户名和邮箱不能同时为空");
+        }
+        if (!rateLimiter.tryAcquire("availability", httpRequest.getRemoteAddr(), null)) {
+            return ApiResponse.error(429, TOO_MANY_REQUESTS);
+        }
+
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        if (username != null && !username.isBlank()) {
+            result.put("username", userAvailabilityService.isUsernameAvailable(username));
+        }
+        if (email != null && !email.isBlank()) {
+            result.put("email", userAvailabilityService.isEmailAvailable(email));
+        }
+        return ApiResponse.success(result);
+    }
+
     /**
      * 用户注册
      */
     @PostMapping("/register")
-    public ApiResponse<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ApiResponse<AuthResponse> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         String verificationCode = request.getVerificationCode();
         if (verificationCode == null || verificationCode.isEmpty()) {
             return ApiResponse.error("验证码不能为空");
         }
+        if (!rateLimiter.tryAcquire("register", httpRequest.getRemoteAddr(), request.getEmail())) {
+            return ApiResponse.error(429, TOO_MANY_REQUESTS);
+        }
         try {
             AuthResponse response = authService.register(request, verificationCode);
             return ApiResponse.success("注册成功，验证邮件已发送", response);
@@ -55,7 +94,10 @@ public class AuthController {
      * 用户登录
      */
     @PostMapping("/login")
-    public ApiResponse<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ApiResponse<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        if (!rateLimiter.tryAcquire("login", httpRequest.getRemoteAddr(), request.getUsername())) {
+            return ApiResponse.error(429, TOO_MANY_REQUESTS);
+        }
         try {
             AuthResponse response = authService.login(request);
             return ApiResponse.success("登录成功", response);
@@ -64,6 +106,26 @@ public class AuthController {
         }
     }
 
+    /**
+     * 刷新访问令牌
+     */
+    @PostMapping("/refresh")
+    public ApiResponse<AuthResponse> refresh(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return ApiResponse.error("刷新令牌不能为空");
+        }
+        if (!rateLimiter.tryAcquire("refresh", httpRequest.getRemoteAddr(), null)) {
+            return ApiResponse.error(429, TOO_MANY_REQUESTS);
+        }
+        try {
+            AuthResponse response = authService.refresh(refreshToken);
+            return ApiResponse.success("刷新成功", response);
+        } catch (Exception e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
     /**
      * 验证邮箱
      */
@@ -83,7 +145,10 @@ public class AuthController {
      * 重新发送验证邮件
      */
     @PostMapping("/resend-verification")
-    public ApiResponse<Void> resendVerification(@RequestParam String email) {
+    public ApiResponse<Void> resendVerification(@RequestParam String email, HttpServletRequest httpRequest) {
+        if (!rateLimiter.tryAcquire("resend-verification", httpRequest.getRemoteAddr(), email)) {
+            return ApiResponse.error(429, TOO_MANY_REQUESTS);
+        }
         try {
             authService.resendVerificationEmail(email);
             return ApiResponse.success("验证邮件已重新发送", null);
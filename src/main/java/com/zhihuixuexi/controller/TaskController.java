@@ -2,14 +2,22 @@ package com.zhihuixuexi.controller;
 
 import com.zhihuixuexi.dto.ApiResponse;
 import com.zhihuixuexi.dto.PageResponse;
+import com.zhihuixuexi.dto.SerializedResponse;
 import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.dto.TaskQueryRequest;
 import com.zhihuixuexi.dto.TaskRequest;
+import com.zhihuixuexi.security.UserPrincipal;
 import com.zhihuixuexi.service.TaskService;
-import com.zhihuixuexi.util.JwtUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.List;
+import java.util.Locale;
 
 /**
  * 任务控制器
@@ -21,7 +29,6 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
-    private final JwtUtil jwtUtil;
 
     /**
      * 创建任务
@@ -29,8 +36,8 @@ public class TaskController {
     @PostMapping
     public ApiResponse<TaskDTO> createTask(
             @RequestBody TaskRequest request,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getUserId();
         try {
             TaskDTO dto = taskService.createTask(request, userId);
             return ApiResponse.success("创建成功", dto);
@@ -46,8 +53,8 @@ public class TaskController {
     public ApiResponse<TaskDTO> updateTask(
             @PathVariable Long id,
             @RequestBody TaskRequest request,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getUserId();
         try {
             TaskDTO dto = taskService.updateTask(id, request, userId);
             return ApiResponse.success("更新成功", dto);
@@ -62,8 +69,8 @@ public class TaskController {
     @DeleteMapping("/{id}")
     public ApiResponse<String> deleteTask(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getUserId();
         try {
             taskService.deleteTask(id, userId);
             return ApiResponse.success("删除成功", null);
@@ -76,13 +83,18 @@ public class TaskController {
      * 获取任务详情
      */
     @GetMapping("/{id}")
-    public ApiResponse<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<?> getTaskById(@PathVariable Long id, ServletWebRequest webRequest) {
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        SerializedResponse response;
         try {
-            TaskDTO dto = taskService.getTaskById(id);
-            return ApiResponse.success(dto);
+            response = taskService.getTaskResponse(id);
         } catch (RuntimeException e) {
-            return ApiResponse.error(e.getMessage());
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+        }
+        if (notModified(webRequest, response, gzip)) {
+            return null;
         }
+        return serialized(response, gzip);
     }
 
     /**
@@ -90,33 +102,66 @@ public class TaskController {
      */
     @GetMapping("/my")
     public ApiResponse<PageResponse<TaskDTO>> getMyTasks(
-            @RequestParam(required = false) Long courseId,
-            @RequestParam(required = false) Boolean published,
-            @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
-        PageResponse<TaskDTO> response = taskService.getMyTasks(userId, courseId, published, page, size);
-        return ApiResponse.success(response);
+            TaskQueryRequest request,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getUserId();
+        try {
+            PageResponse<TaskDTO> response = taskService.getMyTasks(userId, request);
+            return ApiResponse.success(response);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        }
     }
 
     /**
      * 获取课程的任务列表
      */
     @GetMapping("/course/{courseId}")
-    public ApiResponse<List<TaskDTO>> getCourseTasks(@PathVariable Long courseId) {
-        List<TaskDTO> tasks = taskService.getCourseTasks(courseId);
-        return ApiResponse.success(tasks);
+    public ResponseEntity<byte[]> getCourseTasks(@PathVariable Long courseId, ServletWebRequest webRequest) {
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        SerializedResponse response = taskService.getCourseTasksResponse(courseId);
+        if (notModified(webRequest, response, gzip)) {
+            return null;
+        }
+        return serialized(response, gzip);
     }
 
     /**
-     * 从Token中获取用户ID
+     * 条件GET校验：ETag 取自将要写出的已序列化响应体，缓存中的内容与ETag始终成对变化
+     * gzip 与未压缩的响应体是同一资源的不同表示，各自使用不同的强ETag（RFC 9110 8.8.3）
+     * Vary 在校验前写入，304 响应同样携带
      */
-    private Long getUserIdFromToken(String token) {
-        if (token != null && token.startsWith("Bearer ")) {
-            token = token.substring(7);
+    private static boolean notModified(ServletWebRequest webRequest, SerializedResponse body, boolean gzip) {
+        HttpServletResponse response = webRequest.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
         }
-        return jwtUtil.getUserIdFromToken(token);
+        return webRequest.checkNotModified(gzip ? body.getEtag() + "-gzip" : body.getEtag());
     }
-}
 
+    /**
+     * 直接写出预先序列化的字节，客户端支持gzip时写出压缩版本
+     */
+    private static ResponseEntity<byte[]> serialized(SerializedResponse response, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzip());
+        }
+        return builder.body(response.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip")) {
+                // gzip;q=0 表示明确拒绝
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
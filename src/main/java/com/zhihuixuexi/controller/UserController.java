@@ -1,20 +1,35 @@
 package com.zhihuixuexi.controller;
 
 import com.zhihuixuexi.dto.*;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.DataFormat;
 import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.service.UserImportService;
 import com.zhihuixuexi.service.UserService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * 用户管理控制器
  */
+@Slf4j
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     /**
      * 分页查询用户列表
@@ -25,11 +40,42 @@ public class UserController {
         return ApiResponse.success(response);
     }
 
+    /**
+     * 导出用户列表（过滤条件与分页查询相同），以CSV或NDJSON流式写出
+     * 过滤条件在提交响应头之前校验，不合法时与其他接口一样返回400
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportUsers(
+            UserQueryRequest request,
+            @RequestParam(defaultValue = "CSV") DataFormat format) {
+        Specification<User> spec;
+        try {
+            spec = userService.buildExportSpecification(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.ok(ApiResponse.error(400, e.getMessage()));
+        }
+
+        boolean ndjson = format == DataFormat.NDJSON;
+        MediaType contentType = ndjson
+                ? MediaType.parseMediaType("application/x-ndjson")
+                : MediaType.parseMediaType("text/csv;charset=UTF-8");
+        StreamingResponseBody body = output -> userService.exportUsers(spec, format, output);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + (ndjson ? "ndjson" : "csv"))
+                .body(body);
+    }
+
     /**
      * 获取用户详情
      */
     @GetMapping("/{id}")
-    public ApiResponse<UserDTO> getUserById(@PathVariable Long id) {
+    public ApiResponse<UserDTO> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        // 版本未变化时直接返回304，不加载用户也不序列化
+        ResourceVersion version = userService.getUserVersion(id);
+        if (version != null && webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         UserDTO user = userService.getUserById(id);
         return ApiResponse.success(user);
     }
@@ -63,6 +109,42 @@ public class UserController {
         return ApiResponse.success("解封成功", null);
     }
 
+    /**
+     * 批量封禁用户（按ID列表或过滤条件）
+     */
+    @PutMapping("/bulk/ban")
+    public ApiResponse<UserBulkResult> banUsers(@RequestBody UserBulkRequest request) {
+        try {
+            return ApiResponse.success("封禁成功", userService.banUsers(request));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 批量解封用户（按ID列表或过滤条件）
+     */
+    @PutMapping("/bulk/unban")
+    public ApiResponse<UserBulkResult> unbanUsers(@RequestBody UserBulkRequest request) {
+        try {
+            return ApiResponse.success("解封成功", userService.unbanUsers(request));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 批量删除用户（按ID列表或过滤条件）
+     */
+    @PostMapping("/bulk/delete")
+    public ApiResponse<UserBulkResult> deleteUsers(@RequestBody UserBulkRequest request) {
+        try {
+            return ApiResponse.success("删除成功", userService.deleteUsers(request));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        }
+    }
+
     /**
      * 创建用户
      */
@@ -72,6 +154,26 @@ public class UserController {
         return ApiResponse.success("创建成功", user);
     }
 
+    /**
+     * 批量导入用户
+     * 请求体为CSV（首行表头：username,email,password,phone,organization,address）或NDJSON，流式读取
+     */
+    @PostMapping("/import")
+    public ApiResponse<UserImportResult> importUsers(
+            InputStream body,
+            @RequestParam UserRole role,
+            @RequestParam(defaultValue = "CSV") DataFormat format) {
+        try {
+            UserImportResult result = userImportService.importUsers(body, format, role);
+            return ApiResponse.success("导入完成", result);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        } catch (IOException e) {
+            log.warn("读取导入数据失败: {}", e.getMessage());
+            return ApiResponse.error(400, "导入数据读取失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 删除用户
      */
@@ -17,6 +17,8 @@ public class AuthResponse {
     
     private String type = "Bearer";
     
+    private String refreshToken;
+    
     private Long userId;
     
     private String username;
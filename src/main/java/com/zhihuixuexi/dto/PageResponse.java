@@ -23,4 +23,39 @@ public class PageResponse<T> {
     private Integer size;
     
     private Integer totalPages;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasNext;
+
+    /**
+     * 游标分页模式下的下一页游标，没有更多数据时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 游标分页模式下的上一页游标，已是第一页时为null
+     */
+    private String prevCursor;
+
+    public PageResponse(List<T> records, Long total, Integer page, Integer size, Integer totalPages) {
+        this.records = records;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.totalPages = totalPages;
+    }
+
+    /**
+     * 构建游标分页响应（不统计总数）
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> records, Integer size, String nextCursor, String prevCursor) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setRecords(records);
+        response.setSize(size);
+        response.setNextCursor(nextCursor);
+        response.setPrevCursor(prevCursor);
+        return response;
+    }
 }
@@ -0,0 +1,34 @@
+package com.zhihuixuexi.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 资源版本：用于条件GET的强ETag和Last-Modified
+ */
+@Value
+public class ResourceVersion {
+
+    String etag;
+
+    /**
+     * 最后修改时间（毫秒），未知时为-1
+     */
+    long lastModified;
+
+    /**
+     * 由资源标识和更新时间构建，keyParts 依次拼入ETag
+     */
+    public static ResourceVersion of(LocalDateTime updatedAt, Object... keyParts) {
+        long lastModified = updatedAt == null ? -1
+                : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        StringBuilder etag = new StringBuilder();
+        for (Object part : keyParts) {
+            etag.append(part).append('-');
+        }
+        etag.append(updatedAt == null ? "0" : Long.toString(lastModified, 36) + "." + updatedAt.getNano() % 1_000_000);
+        return new ResourceVersion(etag.toString(), lastModified);
+    }
+}
@@ -0,0 +1,88 @@
+package com.zhihuixuexi.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预先序列化的响应体：UTF-8 JSON 及其 gzip 压缩版本
+ * 只在数据变化时构建一次，之后每次请求直接写出字节；字节数组为共享实例，调用方不得修改
+ * ETag 由 JSON 字节的摘要得出，与写出的响应体始终对应（缓存未刷新时不会出现新ETag配旧内容）
+ */
+public final class SerializedResponse {
+
+    private final byte[] json;
+
+    private final byte[] gzip;
+
+    private final String etag;
+
+    private SerializedResponse(byte[] json, byte[] gzip) {
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = digest(json);
+    }
+
+    /**
+     * 使用应用的 ObjectMapper 序列化，保证与常规接口的输出格式一致
+     */
+    public static SerializedResponse of(ObjectMapper objectMapper, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new SerializedResponse(json, compress(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("响应序列化失败", e);
+        }
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * 未压缩表示的强ETag（不含引号），gzip 表示由调用方追加后缀区分
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 缓存占用的字节数
+     */
+    public int size() {
+        return json.length + gzip.length;
+    }
+
+    /**
+     * SHA-256 摘要的前128位
+     */
+    private static String digest(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] compress(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(data.length / 4, 64));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -1,13 +1,18 @@
 package com.zhihuixuexi.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 /**
  * 任务DTO
+ * 全参构造器供投影查询使用，字段顺序与 TaskRepository 中的查询列一致
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TaskDTO {
     private Long id;
     private String title;
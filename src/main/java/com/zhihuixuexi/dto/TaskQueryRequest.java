@@ -0,0 +1,48 @@
+package com.zhihuixuexi.dto;
+
+import com.zhihuixuexi.enums.TotalMode;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 任务查询请求DTO
+ */
+@Data
+public class TaskQueryRequest {
+
+    private Long courseId;
+
+    private Long chapterId;
+
+    private Boolean published;
+
+    /**
+     * 截止时间范围（含边界，ISO格式，如 2024-01-01T00:00:00）
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime deadlineFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime deadlineTo;
+
+    /**
+     * 标题前缀
+     */
+    private String title;
+
+    private Integer page = 1;
+
+    private Integer size = 10;
+
+    /**
+     * 游标分页：传入该参数（首页传空字符串）时按游标翻页，不再统计总数
+     */
+    private String cursor;
+
+    /**
+     * 总数模式：EXACT-精确（默认），NONE-不统计，APPROXIMATE-近似
+     */
+    private TotalMode total = TotalMode.EXACT;
+}
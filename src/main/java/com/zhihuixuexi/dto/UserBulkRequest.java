@@ -0,0 +1,16 @@
+package com.zhihuixuexi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量操作用户请求DTO：指定ID列表，或使用与用户列表相同的过滤条件（二选一，ID列表优先）
+ */
+@Data
+public class UserBulkRequest {
+
+    private List<Long> ids;
+
+    private UserQueryRequest filter;
+}
@@ -0,0 +1,20 @@
+package com.zhihuixuexi.dto;
+
+import lombok.Data;
+
+/**
+ * 批量操作用户结果DTO
+ */
+@Data
+public class UserBulkResult {
+
+    /**
+     * 命中的用户数
+     */
+    private long matched;
+
+    /**
+     * 实际被修改/删除的用户数（已处于目标状态、或仍有关联任务/提交而不能删除的用户不计入）
+     */
+    private long affected;
+}
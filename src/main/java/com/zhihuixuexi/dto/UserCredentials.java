@@ -0,0 +1,41 @@
+package com.zhihuixuexi.dto;
+
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.UserRole;
+import lombok.Value;
+
+/**
+ * 登录校验和签发Token所需的用户字段（只读投影，不进入持久化上下文）
+ */
+@Value
+public class UserCredentials {
+
+    Long id;
+
+    String username;
+
+    /**
+     * 密码（加密后）
+     */
+    String password;
+
+    String email;
+
+    UserRole role;
+
+    Boolean emailVerified;
+
+    Boolean enabled;
+
+    Boolean banned;
+
+    Integer tokenEpoch;
+
+    /**
+     * 从已加载的用户实体构建
+     */
+    public static UserCredentials of(User user) {
+        return new UserCredentials(user.getId(), user.getUsername(), user.getPassword(), user.getEmail(),
+                user.getRole(), user.getEmailVerified(), user.getEnabled(), user.getBanned(), user.getTokenEpoch());
+    }
+}
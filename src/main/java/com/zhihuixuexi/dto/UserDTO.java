@@ -1,14 +1,19 @@
 package com.zhihuixuexi.dto;
 
 import com.zhihuixuexi.enums.UserRole;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 /**
  * 用户信息DTO（不包含密码等敏感信息）
+ * 全参构造器供投影查询使用，字段顺序与 UserRepository 中的查询列一致
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserDTO {
     
     private Long id;
@@ -0,0 +1,53 @@
+package com.zhihuixuexi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入结果
+ */
+@Data
+public class UserImportResult {
+
+    /**
+     * 读取的数据行数
+     */
+    private long total;
+
+    /**
+     * 成功导入的行数
+     */
+    private long imported;
+
+    /**
+     * 失败的行数
+     */
+    private long failed;
+
+    /**
+     * 失败行明细（超过上限的部分只计数不返回）
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 失败行明细
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * 行号（从1开始，包含CSV表头行）
+         */
+        private long line;
+
+        private String username;
+
+        private String message;
+    }
+}
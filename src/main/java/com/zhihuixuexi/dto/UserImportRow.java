@@ -0,0 +1,25 @@
+package com.zhihuixuexi.dto;
+
+import lombok.Data;
+
+/**
+ * 批量导入的一行用户数据（CSV列名或NDJSON字段名与属性名一致）
+ */
+@Data
+public class UserImportRow {
+
+    private String username;
+
+    private String email;
+
+    /**
+     * 为空时使用默认密码
+     */
+    private String password;
+
+    private String phone;
+
+    private String organization;
+
+    private String address;
+}
@@ -1,5 +1,6 @@
 package com.zhihuixuexi.dto;
 
+import com.zhihuixuexi.enums.TotalMode;
 import com.zhihuixuexi.enums.UserRole;
 import lombok.Data;
 
@@ -26,4 +27,14 @@ public class UserQueryRequest {
     private Integer page = 1;
     
     private Integer size = 10;
+    
+    /**
+     * 游标分页：传入该参数（首页传空字符串）时按游标翻页，不再统计总数
+     */
+    private String cursor;
+    
+    /**
+     * 总数模式：EXACT-精确（默认），NONE-不统计，APPROXIMATE-近似
+     */
+    private TotalMode total = TotalMode.EXACT;
 }
@@ -0,0 +1,87 @@
+package com.zhihuixuexi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待发送邮件（发件箱）实体类
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 收件人
+     */
+    @Column(nullable = false, length = 100)
+    private String recipient;
+
+    /**
+     * 邮件主题
+     */
+    @Column(nullable = false, length = 200)
+    private String subject;
+
+    /**
+     * 邮件正文
+     */
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    /**
+     * 状态：PENDING-待发送, SENDING-发送中, SENT-已发送, FAILED-发送失败
+     */
+    @Column(nullable = false, length = 20)
+    private String status = "PENDING";
+
+    /**
+     * 已尝试次数
+     */
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * 下次尝试时间（发送中状态下表示占用截止时间）
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 占用标识：发送中状态下为占用该批邮件的调度轮次生成的随机值
+     */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    /**
+     * 最近一次失败原因
+     */
+    @Column(length = 500)
+    private String lastError;
+
+    /**
+     * 发送成功时间
+     */
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * 创建时间
+     */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,67 @@
+package com.zhihuixuexi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 刷新令牌实体类（只保存令牌的SHA-256摘要）
+ */
+@Entity
+@Table(name = "refresh_tokens", uniqueConstraints = {
+    @UniqueConstraint(columnNames = "token_hash")
+}, indexes = {
+    @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+    @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 所属用户
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * 令牌摘要
+     */
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    /**
+     * 签发时用户的Token版本号，用户被封禁或修改后刷新令牌同样失效
+     */
+    @Column(nullable = false)
+    private Integer tokenEpoch;
+
+    /**
+     * 过期时间
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * 是否已失效（轮换后旧令牌立即失效）
+     */
+    @Column(nullable = false)
+    private Boolean revoked = false;
+
+    /**
+     * 创建时间
+     */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -15,7 +15,14 @@ import java.time.LocalDateTime;
  * 任务/作业实体类
  */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    // 机构的任务列表：按创建者（及课程或发布状态）过滤后按创建时间排序，InnoDB二级索引隐含主键，游标分页的 (created_at, id) 同样有序
+    @Index(name = "idx_tasks_creator_created", columnList = "creator_id, created_at"),
+    @Index(name = "idx_tasks_creator_course_created", columnList = "creator_id, course_id, created_at"),
+    @Index(name = "idx_tasks_creator_published_created", columnList = "creator_id, published, created_at"),
+    // 课程的已发布任务列表及其版本（MAX(updated_at)）
+    @Index(name = "idx_tasks_course_published_updated", columnList = "course_id, published, updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,6 +15,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "task_submissions", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"task_id", "user_id"})
+}, indexes = {
+    // 任务的提交列表、学生的提交列表：过滤后按提交时间排序，无需filesort
+    @Index(name = "idx_task_submissions_task_submitted", columnList = "task_id, submitted_at"),
+    @Index(name = "idx_task_submissions_user_submitted", columnList = "user_id, submitted_at"),
+    @Index(name = "idx_task_submissions_task_status", columnList = "task_id, status")
 })
 @Data
 @NoArgsConstructor
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,14 +19,21 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "users", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "username"),
-    @UniqueConstraint(columnNames = "email")
+    @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+    @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    /**
+     * 唯一约束名称，注册时据此区分用户名重复还是邮箱重复
+     */
+    public static final String UK_USERNAME = "uk_users_username";
+
+    public static final String UK_EMAIL = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,7 +43,7 @@ public class User {
      */
     @NotBlank(message = "用户名不能为空")
     @Size(min = 3, max = 50, message = "用户名长度必须在3-50个字符之间")
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
     /**
@@ -50,7 +58,7 @@ public class User {
      */
     @NotBlank(message = "邮箱不能为空")
     @Email(message = "邮箱格式不正确")
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     /**
@@ -113,6 +121,13 @@ public class User {
     @Column(nullable = false)
     private Boolean banned = false;
 
+    /**
+     * Token版本号，封禁、修改或删除用户时递增，使已签发的Token立即失效
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer tokenEpoch = 0;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,44 @@
+package com.zhihuixuexi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 邮箱验证码实体类（多节点共享验证码时使用，由 JdbcVerificationCodeStore 读写）
+ */
+@Entity
+@Table(name = "verification_codes", indexes = {
+    @Index(name = "idx_verification_codes_expire_at", columnList = "expire_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificationCode {
+
+    /**
+     * 邮箱
+     */
+    @Id
+    @Column(length = 100)
+    private String email;
+
+    /**
+     * 验证码
+     */
+    @Column(nullable = false, length = 6)
+    private String code;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    @Column(name = "expire_at", nullable = false)
+    private Long expireAt;
+
+    /**
+     * 最近发送时间（毫秒时间戳），用于限制重发频率
+     */
+    @Column(name = "last_sent_at", nullable = false)
+    private Long lastSentAt;
+}
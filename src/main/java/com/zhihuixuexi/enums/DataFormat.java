@@ -0,0 +1,16 @@
+package com.zhihuixuexi.enums;
+
+/**
+ * 批量导入/导出的数据格式
+ */
+public enum DataFormat {
+    /**
+     * 逗号分隔，首行为表头
+     */
+    CSV,
+
+    /**
+     * 每行一个JSON对象
+     */
+    NDJSON
+}
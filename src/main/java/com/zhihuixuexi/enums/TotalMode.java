@@ -0,0 +1,21 @@
+package com.zhihuixuexi.enums;
+
+/**
+ * 分页总数模式
+ */
+public enum TotalMode {
+    /**
+     * 精确总数（每次执行COUNT）
+     */
+    EXACT,
+
+    /**
+     * 不返回总数，只返回是否有下一页
+     */
+    NONE,
+
+    /**
+     * 近似总数（来自短期缓存或增量维护的计数）
+     */
+    APPROXIMATE
+}
@@ -0,0 +1,36 @@
+package com.zhihuixuexi.mapper;
+
+import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.entity.Task;
+
+/**
+ * Task → TaskDTO 映射（直接调用getter/setter，不经过反射）
+ * 新增DTO字段时需同步修改
+ */
+public final class TaskMapper {
+
+    private TaskMapper() {
+    }
+
+    public static TaskDTO toDTO(Task task) {
+        TaskDTO dto = new TaskDTO();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setContent(task.getContent());
+        dto.setCourseId(task.getCourse().getId());
+        dto.setCourseTitle(task.getCourse().getTitle());
+        if (task.getChapter() != null) {
+            dto.setChapterId(task.getChapter().getId());
+            dto.setChapterTitle(task.getChapter().getTitle());
+        }
+        dto.setCreatorId(task.getCreator().getId());
+        dto.setCreatorName(task.getCreator().getUsername());
+        dto.setDeadline(task.getDeadline());
+        dto.setMaxScore(task.getMaxScore());
+        dto.setPublished(task.getPublished());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,32 @@
+package com.zhihuixuexi.mapper;
+
+import com.zhihuixuexi.dto.TaskSubmissionDTO;
+import com.zhihuixuexi.entity.TaskSubmission;
+
+/**
+ * TaskSubmission → TaskSubmissionDTO 映射（直接调用getter/setter，不经过反射）
+ * 新增DTO字段时需同步修改
+ */
+public final class TaskSubmissionMapper {
+
+    private TaskSubmissionMapper() {
+    }
+
+    public static TaskSubmissionDTO toDTO(TaskSubmission submission) {
+        TaskSubmissionDTO dto = new TaskSubmissionDTO();
+        dto.setId(submission.getId());
+        dto.setTaskId(submission.getTask().getId());
+        dto.setTaskTitle(submission.getTask().getTitle());
+        dto.setUserId(submission.getUser().getId());
+        dto.setUsername(submission.getUser().getUsername());
+        dto.setContent(submission.getContent());
+        dto.setAttachmentUrls(submission.getAttachmentUrls());
+        dto.setScore(submission.getScore());
+        dto.setFeedback(submission.getFeedback());
+        dto.setStatus(submission.getStatus());
+        dto.setSubmittedAt(submission.getSubmittedAt());
+        dto.setGradedAt(submission.getGradedAt());
+        dto.setCreatedAt(submission.getCreatedAt());
+        return dto;
+    }
+}
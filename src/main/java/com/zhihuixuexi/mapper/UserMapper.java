@@ -0,0 +1,32 @@
+package com.zhihuixuexi.mapper;
+
+import com.zhihuixuexi.dto.UserDTO;
+import com.zhihuixuexi.entity.User;
+
+/**
+ * User → UserDTO 映射（直接调用getter/setter，不经过反射）
+ * 新增DTO字段时需同步修改
+ */
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDTO toDTO(User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        dto.setPhone(user.getPhone());
+        dto.setOrganization(user.getOrganization());
+        dto.setAddress(user.getAddress());
+        dto.setAvatar(user.getAvatar());
+        dto.setEmailVerified(user.getEmailVerified());
+        dto.setEnabled(user.getEnabled());
+        dto.setBanned(user.getBanned());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setUpdatedAt(user.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,93 @@
+package com.zhihuixuexi.repository;
+
+import com.zhihuixuexi.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 邮件发件箱Repository
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * 查询到期待发送的邮件（按ID顺序，分批）
+     */
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            String status, LocalDateTime time, Pageable pageable);
+
+    /**
+     * 统计指定状态的邮件数
+     */
+    long countByStatus(String status);
+
+    /**
+     * 用一条语句占用一批待发送邮件，返回实际占用的数量（已被其他节点占用的不计入）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENDING', e.nextAttemptAt = :leaseUntil, e.claimToken = :token " +
+           "WHERE e.id IN :ids AND e.status = 'PENDING'")
+    int claim(@Param("ids") List<Long> ids,
+              @Param("token") String token,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 查询某次占用实际占到的邮件
+     */
+    List<EmailOutbox> findByStatusAndClaimTokenOrderByIdAsc(String status, String claimToken);
+
+    /**
+     * 释放占用超时的邮件（发送节点宕机等情况）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'PENDING' WHERE e.status = 'SENDING' AND e.nextAttemptAt <= :now")
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+
+    /**
+     * 批量标记发送成功
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENT', e.sentAt = :sentAt, e.attempts = e.attempts + 1 " +
+           "WHERE e.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * 标记发送失败，status 为 PENDING 时在 nextAttemptAt 之后重试
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError WHERE e.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("status") String status,
+                   @Param("attempts") Integer attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    /**
+     * 删除发送成功时间早于 cutoff 的邮件
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = 'SENT' AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 删除放弃时间早于 cutoff 的失败邮件（失败状态下 nextAttemptAt 为放弃时间）
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = 'FAILED' AND e.nextAttemptAt < :cutoff")
+    int deleteFailedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,53 @@
+package com.zhihuixuexi.repository;
+
+import com.zhihuixuexi.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 刷新令牌Repository
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * 根据令牌摘要查找（同时加载所属用户）
+     */
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * 作废指定令牌，返回0表示该令牌已被使用过
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.id = :id AND rt.revoked = false")
+    int revoke(@Param("id") Long id);
+
+    /**
+     * 作废用户的全部刷新令牌
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user.id = :userId AND rt.revoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * 删除用户的全部刷新令牌（删除用户前调用）
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user.id IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 删除已过期的刷新令牌
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,53 +1,59 @@
 package com.zhihuixuexi.repository;
 
+import com.zhihuixuexi.dto.TaskDTO;
 import com.zhihuixuexi.entity.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 任务Repository
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
 
     /**
-     * 根据课程ID查询任务列表（分页）
+     * TaskDTO 投影查询的列，顺序与 TaskDTO 全参构造器一致（带"."的列通过 LEFT JOIN 读取）
      */
-    Page<Task> findByCourseId(Long courseId, Pageable pageable);
+    String[] DTO_COLUMNS = {"id", "title", "description", "content", "course.id", "course.title",
+            "chapter.id", "chapter.title", "creator.id", "creator.username", "deadline", "maxScore",
+            "published", "createdAt", "updatedAt"};
 
     /**
-     * 根据课程ID查询已发布的任务列表
+     * TaskDTO 投影查询：一条语句连接课程、章节和创建者，避免逐条加载关联实体
      */
-    List<Task> findByCourseIdAndPublishedTrue(Long courseId);
+    String DTO_SELECT = "SELECT new com.zhihuixuexi.dto.TaskDTO(t.id, t.title, t.description, t.content, "
+            + "c.id, c.title, ch.id, ch.title, u.id, u.username, t.deadline, t.maxScore, t.published, "
+            + "t.createdAt, t.updatedAt) FROM Task t JOIN t.course c LEFT JOIN t.chapter ch JOIN t.creator u ";
 
     /**
-     * 根据课程ID和章节ID查询任务列表
+     * 根据ID查询任务详情
      */
-    List<Task> findByCourseIdAndChapterId(Long courseId, Long chapterId);
+    @Query(DTO_SELECT + "WHERE t.id = :id")
+    Optional<TaskDTO> findDtoById(@Param("id") Long id);
 
     /**
-     * 根据创建者ID查询任务列表（分页）
-     */
-    Page<Task> findByCreatorId(Long creatorId, Pageable pageable);
-
-    /**
-     * 根据创建者ID和课程ID查询任务列表（分页）
+     * 根据课程ID查询任务列表（分页）
      */
-    Page<Task> findByCreatorIdAndCourseId(Long creatorId, Long courseId, Pageable pageable);
+    Page<Task> findByCourseId(Long courseId, Pageable pageable);
 
     /**
-     * 根据创建者ID和发布状态查询任务列表（分页）
+     * 根据课程ID查询已发布的任务列表
      */
-    Page<Task> findByCreatorIdAndPublished(Long creatorId, Boolean published, Pageable pageable);
+    @Query(DTO_SELECT + "WHERE c.id = :courseId AND t.published = true")
+    List<TaskDTO> findPublishedDtosByCourseId(@Param("courseId") Long courseId);
 
     /**
-     * 根据创建者ID、课程ID和发布状态查询任务列表（分页）
+     * 根据课程ID和章节ID查询任务列表
      */
-    Page<Task> findByCreatorIdAndCourseIdAndPublished(Long creatorId, Long courseId, Boolean published, Pageable pageable);
+    List<Task> findByCourseIdAndChapterId(Long courseId, Long chapterId);
 
     /**
      * 统计创建者的任务数量
@@ -0,0 +1,86 @@
+package com.zhihuixuexi.repository;
+
+import com.zhihuixuexi.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+
+/**
+ * 任务查询条件，配合 TaskRepository（JpaSpecificationExecutor）及投影查询使用
+ * 参数为空时返回null，Specification.and 会忽略null条件；关联只比较外键列，不产生额外的JOIN
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * 创建者
+     */
+    public static Specification<Task> creator(Long creatorId) {
+        return creatorId == null ? null : (root, query, cb) -> cb.equal(root.get("creator").get("id"), creatorId);
+    }
+
+    /**
+     * 所属课程
+     */
+    public static Specification<Task> course(Long courseId) {
+        return courseId == null ? null : (root, query, cb) -> cb.equal(root.get("course").get("id"), courseId);
+    }
+
+    /**
+     * 所属章节
+     */
+    public static Specification<Task> chapter(Long chapterId) {
+        return chapterId == null ? null : (root, query, cb) -> cb.equal(root.get("chapter").get("id"), chapterId);
+    }
+
+    /**
+     * 发布状态
+     */
+    public static Specification<Task> published(Boolean published) {
+        return published == null ? null : (root, query, cb) -> cb.equal(root.get("published"), published);
+    }
+
+    /**
+     * 截止时间范围（含边界），任一端为null时不限制该端
+     */
+    public static Specification<Task> deadlineBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThanOrEqualTo(root.get("deadline"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("deadline"), from);
+            }
+            return cb.between(root.get("deadline"), from, to);
+        };
+    }
+
+    /**
+     * 标题前缀（LIKE 'prefix%'，不在列上套函数，保持可走索引的形式）
+     */
+    public static Specification<Task> titleStartsWith(String prefix) {
+        if (!StringUtils.hasText(prefix)) {
+            return null;
+        }
+        String pattern = escapeLike(prefix.trim()) + "%";
+        return (root, query, cb) -> cb.like(root.get("title"), pattern, '\\');
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
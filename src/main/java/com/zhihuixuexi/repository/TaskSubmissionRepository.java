@@ -4,6 +4,7 @@ import com.zhihuixuexi.entity.TaskSubmission;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,7 +17,8 @@ import java.util.Optional;
  * 任务提交Repository
  */
 @Repository
-public interface TaskSubmissionRepository extends JpaRepository<TaskSubmission, Long> {
+public interface TaskSubmissionRepository extends JpaRepository<TaskSubmission, Long>,
+        JpaSpecificationExecutor<TaskSubmission> {
 
     /**
      * 根据任务ID查询提交列表（分页）
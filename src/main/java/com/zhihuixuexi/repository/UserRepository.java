@@ -1,13 +1,25 @@
 package com.zhihuixuexi.repository;
 
+import com.zhihuixuexi.dto.UserCredentials;
+import com.zhihuixuexi.dto.UserDTO;
 import com.zhihuixuexi.entity.User;
 import com.zhihuixuexi.enums.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 用户数据访问层
@@ -20,6 +32,48 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * UserDTO 投影查询的列，顺序与 UserDTO 全参构造器一致
+     */
+    String[] DTO_COLUMNS = {"id", "username", "email", "role", "phone", "organization", "address", "avatar",
+            "emailVerified", "enabled", "banned", "createdAt", "updatedAt"};
+
+    /**
+     * 根据ID查询用户信息（只读取 UserDTO 所需的列）
+     */
+    @Query("SELECT new com.zhihuixuexi.dto.UserDTO(u.id, u.username, u.email, u.role, u.phone, u.organization, "
+            + "u.address, u.avatar, u.emailVerified, u.enabled, u.banned, u.createdAt, u.updatedAt) "
+            + "FROM User u WHERE u.id = :id")
+    Optional<UserDTO> findDtoById(@Param("id") Long id);
+
+    /**
+     * 查询用户的更新时间（条件GET的版本检查）
+     */
+    @Query("SELECT u.updatedAt FROM User u WHERE u.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * 根据用户名查询登录所需字段
+     */
+    @Query("SELECT new com.zhihuixuexi.dto.UserCredentials(u.id, u.username, u.password, u.email, u.role, "
+            + "u.emailVerified, u.enabled, u.banned, u.tokenEpoch) FROM User u WHERE u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    /**
+     * 根据ID查询登录所需字段
+     */
+    @Query("SELECT new com.zhihuixuexi.dto.UserCredentials(u.id, u.username, u.password, u.email, u.role, "
+            + "u.emailVerified, u.enabled, u.banned, u.tokenEpoch) FROM User u WHERE u.id = :id")
+    Optional<UserCredentials> findCredentialsById(@Param("id") Long id);
+
+    /**
+     * 更新密码哈希
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
     /**
      * 根据邮箱查找用户
      */
@@ -35,6 +89,24 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      */
     Boolean existsByEmail(String email);
 
+    /**
+     * 查询已存在的用户名（批量导入查重）
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 查询已存在的邮箱（批量导入查重）
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * 按用户名批量查询ID（[id, username]）
+     */
+    @Query("SELECT u.id, u.username FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdsByUsernames(@Param("usernames") Collection<String> usernames);
+
     /**
      * 根据角色查找用户列表
      */
@@ -44,4 +116,60 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      * 根据邮箱和验证码查找用户
      */
     Optional<User> findByEmailAndVerificationCode(String email, String verificationCode);
+
+    /**
+     * 查询Token版本号不为0的用户（[id, tokenEpoch]）
+     */
+    @Query("SELECT u.id, u.tokenEpoch FROM User u WHERE u.tokenEpoch <> 0")
+    List<Object[]> findNonZeroTokenEpochs();
+
+    /**
+     * 流式读取全部用户名和邮箱（[username, email]），需在只读事务中使用并关闭流
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username, u.email FROM User u")
+    Stream<Object[]> streamUsernamesAndEmails();
+
+    /**
+     * 流式读取搜索字段（[id, username, email, organization]），需在只读事务中使用并关闭流
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id, u.username, u.email, u.organization FROM User u")
+    Stream<Object[]> streamSearchFields();
+
+    /**
+     * 锁定并读取用户状态（[id, role, banned, enabled, token_epoch, username]），用于批量操作
+     */
+    @Query(value = "SELECT id, role, banned, enabled, token_epoch, username FROM users WHERE id IN (:ids) FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockStatusByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 查询仍被任务或提交记录引用的用户ID
+     */
+    @Query(value = "SELECT creator_id FROM tasks WHERE creator_id IN (:ids) "
+            + "UNION SELECT user_id FROM task_submissions WHERE user_id IN (:ids)", nativeQuery = true)
+    List<Number> findReferencedIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量设置封禁状态并递增Token版本号
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.banned = :banned, u.tokenEpoch = u.tokenEpoch + 1, u.updatedAt = :now "
+            + "WHERE u.id IN :ids")
+    int updateBannedByIds(@Param("ids") Collection<Long> ids, @Param("banned") boolean banned,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * 批量删除用户
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按角色、封禁、启用状态分组统计用户数（[role, banned, enabled, count]）
+     */
+    @Query("SELECT u.role, u.banned, u.enabled, COUNT(u) FROM User u GROUP BY u.role, u.banned, u.enabled")
+    List<Object[]> countGroupByRoleAndStatus();
 }
@@ -0,0 +1,97 @@
+package com.zhihuixuexi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zhihuixuexi.dto.UserCredentials;
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.TextFolding;
+import com.zhihuixuexi.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 认证记录缓存：按用户名和用户ID缓存登录及鉴权所需的字段（密码哈希、启用/封禁状态、角色、Token版本号）
+ * 用户被修改、封禁、解封或删除时同步失效；过期时间用于兜底其他节点上的修改
+ * 数据库按 *_ai_ci 排序规则比较用户名，用户名键统一折叠（忽略大小写、重音、全角），
+ * 否则 "ALICE" 登录时缓存的记录不会随 "alice" 的失效而移除
+ */
+@Component
+public class AuthRecordCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserCredentials> byUsername;
+    private final Cache<Long, UserCredentials> byId;
+
+    public AuthRecordCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.auth-cache.max-size:10000}") long maxSize,
+            @Value("${user.auth-cache.ttl-ms:600000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        // 命中率由 cache.gets{result=hit|miss} 指标提供
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "auth.records.username");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "auth.records.id");
+    }
+
+    /**
+     * 按用户名查询，未命中时从数据库加载（用户不存在时不缓存）
+     * 加载在 Cache.get 内完成，失效操作会等待同一键上进行中的加载结束后再移除，旧记录不会在失效后写回
+     */
+    public Optional<UserCredentials> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byUsername.get(TextFolding.fold(username),
+                key -> userRepository.findCredentialsByUsername(key).orElse(null)));
+    }
+
+    /**
+     * 按用户ID查询，未命中时从数据库加载（用户不存在时不缓存）
+     */
+    public Optional<UserCredentials> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byId.get(id, key -> userRepository.findCredentialsById(key).orElse(null)));
+    }
+
+    /**
+     * 立即失效，并在当前事务提交后再失效一次：提交前开始的加载可能读到旧记录，
+     * 提交后的失效会等待该加载结束并将其结果移除
+     * 两个缓存各自加载，不互相写入，因此调用方需传入用户的全部用户名（修改前后）
+     */
+    public void invalidate(Long id, String... usernames) {
+        evict(id, usernames);
+        TransactionUtils.afterCommit(() -> evict(id, usernames));
+    }
+
+    private void evict(Long id, String... usernames) {
+        if (id != null) {
+            UserCredentials cached = byId.getIfPresent(id);
+            byId.invalidate(id);
+            if (cached != null) {
+                byUsername.invalidate(TextFolding.fold(cached.getUsername()));
+            }
+        }
+        for (String username : usernames) {
+            if (username != null) {
+                byUsername.invalidate(TextFolding.fold(username));
+            }
+        }
+    }
+}
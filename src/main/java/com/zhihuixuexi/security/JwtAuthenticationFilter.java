@@ -0,0 +1,91 @@
+package com.zhihuixuexi.security;
+
+import com.zhihuixuexi.dto.UserCredentials;
+import com.zhihuixuexi.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * JWT认证过滤器：每个请求只解析一次Token，并将用户信息放入安全上下文
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final AuthRecordCache authRecordCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            UserPrincipal principal = parsePrincipal(header.substring(BEARER_PREFIX.length()));
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name())));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 解析Token，无效时返回null（由后续的访问控制决定是否拒绝）
+     */
+    private UserPrincipal parsePrincipal(String token) {
+        Long userId;
+        Integer epoch;
+        try {
+            Claims claims = jwtUtil.getClaimsFromToken(token);
+            userId = claims.get("userId", Long.class);
+            epoch = claims.get("epoch", Integer.class);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("无效的Token: {}", e.getMessage());
+            return null;
+        }
+        if (userId == null) {
+            log.debug("Token缺少userId");
+            return null;
+        }
+
+        // 用户被封禁、修改或删除后，旧Token的版本号不再匹配
+        if (!revocationRegistry.isCurrent(userId, epoch == null ? 0 : epoch)) {
+            log.debug("Token已吊销 userId={}", userId);
+            return null;
+        }
+
+        // 启用/封禁状态和角色以认证记录为准（通常命中缓存，不查询数据库）
+        UserCredentials record = authRecordCache.findById(userId).orElse(null);
+        if (record == null || !record.getEnabled() || record.getBanned()) {
+            log.debug("用户不存在或不可用 userId={}", userId);
+            return null;
+        }
+
+        return new UserPrincipal(
+                userId,
+                record.getUsername(),
+                record.getRole()
+        );
+    }
+}
@@ -0,0 +1,156 @@
+package com.zhihuixuexi.security;
+
+import com.zhihuixuexi.config.RateLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内令牌桶限流器
+ * 令牌桶按IP和用户名/邮箱分别建立，存放在分段加锁的LRU表中，空闲或超出容量的桶被回收
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        int count = Integer.highestOneBit(Math.max(properties.getStripes(), 1));
+        int perStripe = Math.max(properties.getMaxEntries() / count, 1);
+        long idleTimeoutNanos = properties.getIdleTimeoutMs() * 1_000_000L;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe, idleTimeoutNanos);
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * 尝试通过限流，IP与标识（用户名/邮箱）任一超限即拒绝
+     * 先检查标识：针对已被限流账号的请求不消耗共享IP（如校园网出口）的额度；IP超限时退还已扣的标识令牌
+     *
+     * @param endpoint 接口名称（对应 rate-limit.endpoints 下的配置）
+     * @param ip       客户端IP
+     * @param key      用户名或邮箱，可为空
+     */
+    public boolean tryAcquire(String endpoint, String ip, String key) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        RateLimitProperties.Rule rule = properties.getEndpoints().get(endpoint);
+        if (rule == null) {
+            return true;
+        }
+
+        String keyBucket = key != null && !key.isEmpty() ? endpoint + "|key|" + key.toLowerCase() : null;
+        if (keyBucket != null && !tryAcquire(keyBucket, rule.getKeyCapacity(), rule.getKeyRefillPerMinute())) {
+            log.debug("触发账号限流 endpoint={} key={}", endpoint, key);
+            return false;
+        }
+        if (ip != null && !tryAcquire(endpoint + "|ip|" + ip, rule.getIpCapacity(), rule.getIpRefillPerMinute())) {
+            if (keyBucket != null) {
+                refund(keyBucket, rule.getKeyCapacity());
+            }
+            log.debug("触发IP限流 endpoint={} ip={}", endpoint, ip);
+            return false;
+        }
+        return true;
+    }
+
+    private Stripe stripeFor(String bucketKey) {
+        int h = bucketKey.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private boolean tryAcquire(String bucketKey, int capacity, double refillPerMinute) {
+        Stripe stripe = stripeFor(bucketKey);
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            TokenBucket bucket = stripe.buckets.get(bucketKey);
+            if (bucket == null) {
+                stripe.evictIdle(now);
+                bucket = new TokenBucket(capacity, now);
+                stripe.buckets.put(bucketKey, bucket);
+            }
+            return bucket.tryConsume(capacity, refillPerMinute / 60_000_000_000.0, now);
+        }
+    }
+
+    /**
+     * 退还一个令牌（桶已被回收时忽略）
+     */
+    private void refund(String bucketKey, int capacity) {
+        Stripe stripe = stripeFor(bucketKey);
+        synchronized (stripe) {
+            TokenBucket bucket = stripe.buckets.get(bucketKey);
+            if (bucket != null) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+            }
+        }
+    }
+
+    /**
+     * 一个分段：按访问顺序排列的令牌桶表，表头为最久未使用的桶
+     */
+    private static final class Stripe {
+
+        private final long idleTimeoutNanos;
+        private final LinkedHashMap<String, TokenBucket> buckets;
+
+        Stripe(int maxEntries, long idleTimeoutNanos) {
+            this.idleTimeoutNanos = idleTimeoutNanos;
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        /**
+         * 从表头开始回收空闲桶，遇到活跃桶即停止
+         */
+        void evictIdle(long now) {
+            var iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().lastAccess < idleTimeoutNanos) {
+                    break;
+                }
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 令牌桶（由所在分段的锁保护）
+     */
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long lastRefill;
+        private long lastAccess;
+
+        TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.lastAccess = now;
+        }
+
+        boolean tryConsume(int capacity, double refillPerNano, long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            lastAccess = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.zhihuixuexi.security;
+
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token吊销表：内存中保存每个用户当前的Token版本号（tokenEpoch）
+ * Token中携带签发时的版本号，版本号不一致即视为已吊销，认证时无需查询数据库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    /**
+     * 已删除用户的版本号，任何Token都不会与之匹配
+     */
+    private static final int DELETED = -1;
+
+    private final UserRepository userRepository;
+
+    /**
+     * 只保存版本号不为0的用户，绝大多数用户不占用空间
+     */
+    private final ConcurrentHashMap<Long, Integer> epochs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        List<Object[]> rows = userRepository.findNonZeroTokenEpochs();
+        for (Object[] row : rows) {
+            epochs.put((Long) row[0], (Integer) row[1]);
+        }
+        log.info("加载Token版本号 {} 条", epochs.size());
+    }
+
+    /**
+     * 判断Token中的版本号是否仍然有效
+     */
+    public boolean isCurrent(Long userId, int tokenEpoch) {
+        return epochs.getOrDefault(userId, 0) == tokenEpoch;
+    }
+
+    /**
+     * 更新用户的Token版本号（在事务提交后生效）
+     */
+    public void updateEpoch(Long userId, int tokenEpoch) {
+        TransactionUtils.afterCommit(() -> {
+            if (tokenEpoch == 0) {
+                epochs.remove(userId);
+            } else {
+                epochs.put(userId, tokenEpoch);
+            }
+        });
+    }
+
+    /**
+     * 用户已删除，吊销其全部Token（在事务提交后生效）
+     */
+    public void markDeleted(Long userId) {
+        TransactionUtils.afterCommit(() -> epochs.put(userId, DELETED));
+    }
+}
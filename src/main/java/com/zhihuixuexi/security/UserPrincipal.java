@@ -0,0 +1,17 @@
+package com.zhihuixuexi.security;
+
+import com.zhihuixuexi.enums.UserRole;
+import lombok.Value;
+
+/**
+ * 当前登录用户（由JWT解析得到，不可变）
+ */
+@Value
+public class UserPrincipal {
+
+    Long userId;
+
+    String username;
+
+    UserRole role;
+}
@@ -3,11 +3,13 @@ package com.zhihuixuexi.service;
 import com.zhihuixuexi.dto.AuthResponse;
 import com.zhihuixuexi.dto.LoginRequest;
 import com.zhihuixuexi.dto.RegisterRequest;
+import com.zhihuixuexi.dto.UserCredentials;
 import com.zhihuixuexi.entity.User;
 import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.security.AuthRecordCache;
 import com.zhihuixuexi.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,27 +19,20 @@ import java.util.Random;
 /**
  * 认证服务类
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashService passwordHashService;
     private final JwtUtil jwtUtil;
     private final EmailService emailService;
 
-    // 简单的内存缓存存储验证码（生产环境应该用Redis）
-    private final java.util.Map<String, VerificationCodeData> verificationCodeCache = new java.util.concurrent.ConcurrentHashMap<>();
-
-    private static class VerificationCodeData {
-        String code;
-        LocalDateTime expiry;
-
-        VerificationCodeData(String code, LocalDateTime expiry) {
-            this.code = code;
-            this.expiry = expiry;
-        }
-    }
+    private final VerificationCodeStore verificationCodeStore;
+    private final RefreshTokenService refreshTokenService;
+    private final UserService userService;
+    private final AuthRecordCache authRecordCache;
 
     /**
      * 发送验证码（不创建用户）
@@ -61,28 +56,27 @@ public class AuthService {
         // 生成验证码
         String verificationCode = generateVerificationCode();
 
-        // 封装数据
-        VerificationCodeData codeData = new VerificationCodeData(
-                verificationCode,
-                LocalDateTime.now().plusHours(24)
-        );
-
+        boolean saved;
         try {
-            // 写入缓存
-            verificationCodeCache.put(email, codeData);
+            // 写入验证码存储
+            saved = verificationCodeStore.save(email, verificationCode);
         } catch (Exception e) {
             // 写入失败（缓存宕机/本地内存异常）
             log.error("写入验证码缓存失败 email={} error={}", email, e.getMessage());
             throw new RuntimeException("系统异常，请稍后重试");
         }
 
+        if (!saved) {
+            throw new IllegalStateException("验证码发送过于频繁，请稍后再试");
+        }
+
         try {
             // 发送邮件
             emailService.sendVerificationEmail(email, "用户", verificationCode);
         } catch (Exception e) {
             // 邮件发送失败，建议删除缓存避免失效验证码占用空间
             log.error("发送验证码邮件失败 email={} error={}", email, e.getMessage());
-            verificationCodeCache.remove(email);
+            verificationCodeStore.remove(email);
             throw new RuntimeException("验证码发送失败，请稍后重试");
         }
 
@@ -97,38 +91,22 @@ public class AuthService {
      */
     @Transactional
     public AuthResponse register(RegisterRequest request, String verificationCode) {
-        // 检查用户名是否已存在
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("用户名已存在");
-        }
-
-        // 检查邮箱是否已存在
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("邮箱已被注册");
+        // 验证邮箱验证码（用户名/邮箱是否重复在插入时由唯一约束判断）
+        switch (verificationCodeStore.verify(request.getEmail(), verificationCode)) {
+            case NOT_FOUND:
+                throw new RuntimeException("请先获取验证码");
+            case MISMATCH:
+                throw new RuntimeException("验证码错误");
+            case EXPIRED:
+                throw new RuntimeException("验证码已过期");
+            default:
+                break;
         }
 
-        // 验证邮箱验证码
-        VerificationCodeData codeData = verificationCodeCache.get(request.getEmail());
-        if (codeData == null) {
-            throw new RuntimeException("请先获取验证码");
-        }
-
-        if (!codeData.code.equals(verificationCode)) {
-            throw new RuntimeException("验证码错误");
-        }
-
-        if (codeData.expiry.isBefore(LocalDateTime.now())) {
-            verificationCodeCache.remove(request.getEmail());
-            throw new RuntimeException("验证码已过期");
-        }
-
-        // 验证通过，删除缓存中的验证码
-        verificationCodeCache.remove(request.getEmail());
-
         // 创建新用户
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashService.encode(request.getPassword()));
         user.setEmail(request.getEmail());
         user.setRole(request.getRole());
         user.setPhone(request.getPhone());
@@ -138,36 +116,27 @@ public class AuthService {
         user.setEnabled(true);
         user.setBanned(false);
 
-        // 保存用户
-        user = userRepository.save(user);
+        // 保存用户，用户名或邮箱重复时抛出对应提示
+        user = userService.insertNewUser(user);
 
-        // 生成JWT Token
-        String token = jwtUtil.generateToken(
-                user.getUsername(),
-                user.getId(),
-                user.getRole().name()
-        );
+        // 注册成功后消费验证码
+        verificationCodeStore.remove(request.getEmail());
 
-        return new AuthResponse(
-                token,
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole(),
-                user.getEmailVerified()
-        );
+        // 生成访问令牌和刷新令牌
+        return buildAuthResponse(UserCredentials.of(user));
     }
 
     /**
      * 用户登录
+     * 认证记录优先从缓存读取，未命中时只查询校验所需的列
      */
     public AuthResponse login(LoginRequest request) {
         // 查找用户
-        User user = userRepository.findByUsername(request.getUsername())
+        UserCredentials user = authRecordCache.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("用户名不存在"));
 
         // 验证密码
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashService.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("密码错误");
         }
 
@@ -181,21 +150,28 @@ public class AuthService {
             throw new RuntimeException("账号未启用");
         }
 
-        // 生成JWT Token
-        String token = jwtUtil.generateToken(
-                user.getUsername(),
-                user.getId(),
-                user.getRole().name()
-        );
+        // 成本因子调整后，登录成功时按新成本重新哈希
+        rehashIfNeeded(user, request.getPassword());
 
-        return new AuthResponse(
-                token,
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole(),
-                user.getEmailVerified()
-        );
+        // 生成访问令牌和刷新令牌
+        return buildAuthResponse(user);
+    }
+
+    /**
+     * 使用刷新令牌换取新的访问令牌（无需校验密码，刷新令牌同时轮换）
+     */
+    public AuthResponse refresh(String refreshToken) {
+        User user = refreshTokenService.consume(refreshToken);
+
+        if (user.getBanned()) {
+            throw new RuntimeException("账号已被封禁，请联系管理员");
+        }
+
+        if (!user.getEnabled()) {
+            throw new RuntimeException("账号未启用");
+        }
+
+        return buildAuthResponse(UserCredentials.of(user));
     }
 
     /**
@@ -216,6 +192,7 @@ public class AuthService {
         user.setVerificationCode(null);
         user.setVerificationCodeExpiry(null);
         userRepository.save(user);
+        authRecordCache.invalidate(user.getId(), user.getUsername());
     }
 
     /**
@@ -240,6 +217,44 @@ public class AuthService {
         emailService.sendVerificationEmail(email, user.getUsername(), verificationCode);
     }
 
+    /**
+     * 签发访问令牌和刷新令牌
+     */
+    private AuthResponse buildAuthResponse(UserCredentials user) {
+        String token = jwtUtil.generateToken(
+                user.getUsername(),
+                user.getId(),
+                user.getRole().name(),
+                user.getTokenEpoch()
+        );
+
+        AuthResponse response = new AuthResponse(
+                token,
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRole(),
+                user.getEmailVerified()
+        );
+        response.setRefreshToken(refreshTokenService.issue(user.getId(), user.getTokenEpoch()));
+        return response;
+    }
+
+    /**
+     * 按当前BCrypt成本因子重新哈希密码（失败不影响本次登录）
+     */
+    private void rehashIfNeeded(UserCredentials user, String rawPassword) {
+        if (!passwordHashService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            userRepository.updatePassword(user.getId(), passwordHashService.encode(rawPassword));
+            authRecordCache.invalidate(user.getId(), user.getUsername());
+        } catch (Exception e) {
+            log.warn("密码重新哈希失败 userId={} error={}", user.getId(), e.getMessage());
+        }
+    }
+
     /**
      * 生成6位数字验证码
      */
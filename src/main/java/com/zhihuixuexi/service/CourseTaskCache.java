@@ -0,0 +1,65 @@
+package com.zhihuixuexi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zhihuixuexi.dto.ApiResponse;
+import com.zhihuixuexi.dto.SerializedResponse;
+import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.repository.TaskRepository;
+import com.zhihuixuexi.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 课程已发布任务列表缓存，缓存已序列化的接口响应体
+ * 同一课程并发未命中时只有一个线程查询数据库，其余线程等待其结果；任务增删改时按课程失效
+ */
+@Service
+public class CourseTaskCache {
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, SerializedResponse> cache;
+
+    public CourseTaskCache(
+            TaskRepository taskRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${task.course-cache.max-size:2000}") long maxSize,
+            @Value("${task.course-cache.ttl-ms:600000}") long ttlMillis) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        // 命中率和加载耗时由 cache.gets、cache.load.duration 等指标提供
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks.course");
+    }
+
+    /**
+     * 获取课程任务列表接口的完整响应体（已序列化）
+     */
+    public SerializedResponse getResponse(Long courseId) {
+        // Cache.get 对同一个键只执行一次加载
+        return cache.get(courseId, id -> {
+            List<TaskDTO> tasks = taskRepository.findPublishedDtosByCourseId(id);
+            return SerializedResponse.of(objectMapper, ApiResponse.success(tasks));
+        });
+    }
+
+    /**
+     * 课程的任务列表发生变化：立即失效，并在事务提交后再失效一次，避免提交前加载的旧列表留在缓存中
+     */
+    public void invalidate(Long courseId) {
+        cache.invalidate(courseId);
+        TransactionUtils.afterCommit(() -> cache.invalidate(courseId));
+    }
+}
@@ -0,0 +1,138 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.entity.EmailOutbox;
+import com.zhihuixuexi.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 发件箱调度器：后台分批投递待发送邮件，失败按指数退避重试
+ * 每批邮件用一条 UPDATE 占用、发送成功后用一条 UPDATE 标记，已发送和已放弃的邮件定期清理
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final MailTransport mailTransport;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-ms:2000}")
+    private long backoffMillis;
+
+    @Value("${mail.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMillis;
+
+    @Value("${mail.outbox.lease-ms:60000}")
+    private long leaseMillis;
+
+    @Value("${mail.outbox.sent-retention-ms:604800000}")
+    private long sentRetentionMillis;
+
+    @Value("${mail.outbox.failed-retention-ms:2592000000}")
+    private long failedRetentionMillis;
+
+    /**
+     * 待发送邮件积压数（每轮调度后刷新），供入队时做背压判断
+     */
+    private volatile long backlog;
+
+    /**
+     * 定时投递一批到期邮件
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.releaseExpiredClaims(now);
+
+        List<EmailOutbox> batch = claimBatch(now);
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (EmailOutbox email : batch) {
+            try {
+                mailTransport.send(email);
+                sentIds.add(email.getId());
+            } catch (Exception e) {
+                handleFailure(email, e);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, LocalDateTime.now());
+        }
+
+        backlog = outboxRepository.countByStatus("PENDING");
+    }
+
+    /**
+     * 定期清理已发送及已放弃的历史邮件，避免发件箱表无限增长
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.cleanup-interval-ms:3600000}")
+    public void purgeHistory() {
+        LocalDateTime now = LocalDateTime.now();
+        int sent = outboxRepository.deleteSentBefore(now.minus(Duration.ofMillis(sentRetentionMillis)));
+        int failed = outboxRepository.deleteFailedBefore(now.minus(Duration.ofMillis(failedRetentionMillis)));
+        if (sent + failed > 0) {
+            log.debug("清理历史邮件 已发送{}条 已放弃{}条", sent, failed);
+        }
+    }
+
+    public long getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * 用一条 UPDATE 占用整批到期邮件；部分邮件已被其他节点占用时，按本轮的占用标识查出实际占到的邮件
+     */
+    private List<EmailOutbox> claimBatch(LocalDateTime now) {
+        List<EmailOutbox> candidates = outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                "PENDING", now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<Long> ids = candidates.stream().map(EmailOutbox::getId).toList();
+        String token = UUID.randomUUID().toString();
+        int claimed = outboxRepository.claim(ids, token, now.plus(Duration.ofMillis(leaseMillis)));
+        if (claimed == candidates.size()) {
+            return candidates;
+        }
+        return claimed == 0 ? List.of() : outboxRepository.findByStatusAndClaimTokenOrderByIdAsc("SENDING", token);
+    }
+
+    /**
+     * 失败处理：未超过最大次数时按指数退避重新排队，否则标记为失败
+     */
+    private void handleFailure(EmailOutbox email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+
+        if (attempts >= maxAttempts) {
+            log.error("邮件发送失败，已放弃 id={} to={} error={}", email.getId(), email.getRecipient(), error);
+            outboxRepository.markFailed(email.getId(), "FAILED", attempts, LocalDateTime.now(), error);
+            return;
+        }
+
+        long delay = Math.min(backoffMillis << Math.min(attempts - 1, 20), maxBackoffMillis);
+        log.warn("邮件发送失败，{}ms后重试 id={} attempts={} error={}", delay, email.getId(), attempts, error);
+        outboxRepository.markFailed(email.getId(), "PENDING", attempts,
+                LocalDateTime.now().plus(Duration.ofMillis(delay)), error);
+    }
+}
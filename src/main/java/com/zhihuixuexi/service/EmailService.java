@@ -1,35 +1,56 @@
 package com.zhihuixuexi.service;
 
+import com.zhihuixuexi.entity.EmailOutbox;
+import com.zhihuixuexi.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 /**
  * 邮件服务类
+ * 请求线程只负责写入发件箱，实际投递由 EmailOutboxDispatcher 在后台完成
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class EmailService {
 
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxDispatcher outboxDispatcher;
+
+    @Value("${mail.outbox.max-pending:10000}")
+    private long maxPending;
+
     /**
-     * 发送验证邮件（开发环境：直接在控制台输出验证码）
+     * 发送验证邮件（写入发件箱，随调用方事务一起提交）
      */
     public void sendVerificationEmail(String to, String username, String verificationCode) {
-        log.info("=".repeat(60));
-        log.info("📧 邮箱验证码");
-        log.info("=".repeat(60));
-        log.info("收件人: {}", to);
-        log.info("用户名: {}", username);
-        log.info("验证码: {}", verificationCode);
-        log.info("有效期: 24小时");
-        log.info("=".repeat(60));
-        
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("📧 邮箱验证码");
-        System.out.println("=".repeat(60));
-        System.out.println("收件人: " + to);
-        System.out.println("用户名: " + username);
-        System.out.println("验证码: " + verificationCode);
-        System.out.println("有效期: 24小时");
-        System.out.println("=".repeat(60) + "\n");
+        String content = "您好，" + username + "：\n\n" +
+                "您的邮箱验证码为：" + verificationCode + "\n" +
+                "有效期：24小时\n\n" +
+                "如非本人操作，请忽略本邮件。";
+        enqueue(to, "智慧学习平台邮箱验证码", content);
+    }
+
+    /**
+     * 写入发件箱，积压过多时拒绝以免投递延迟无限增长
+     */
+    private void enqueue(String to, String subject, String content) {
+        if (outboxDispatcher.getBacklog() >= maxPending) {
+            log.warn("邮件发件箱积压过多，拒绝入队 to={}", to);
+            throw new RuntimeException("邮件发送繁忙，请稍后重试");
+        }
+
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setContent(content);
+        email.setStatus("PENDING");
+        email.setAttempts(0);
+        email.setNextAttemptAt(LocalDateTime.now());
+        outboxRepository.save(email);
     }
 }
@@ -0,0 +1,37 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.entity.EmailOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 文件邮件通道：每封邮件写成一个 .eml 文件，便于离线联调和测试
+ */
+@Component
+@ConditionalOnProperty(name = "mail.transport", havingValue = "file")
+public class FileMailTransport implements MailTransport {
+
+    private final Path directory;
+
+    public FileMailTransport(@Value("${mail.file.dir:./mail-outbox}") String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void send(EmailOutbox email) throws IOException {
+        Files.createDirectories(directory);
+        String message = "To: " + email.getRecipient() + "\r\n" +
+                "Subject: " + email.getSubject() + "\r\n" +
+                "Content-Type: text/plain; charset=UTF-8\r\n" +
+                "\r\n" +
+                email.getContent() + "\r\n";
+        Files.writeString(directory.resolve(email.getId() + ".eml"), message, StandardCharsets.UTF_8);
+    }
+}
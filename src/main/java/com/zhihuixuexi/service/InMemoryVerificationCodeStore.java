@@ -0,0 +1,180 @@
+package com.zhihuixuexi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * 单机内存验证码存储
+ * 使用哈希时间轮处理过期（每个条目只被清理一次，无需全表扫描），
+ * 容量达到上限时淘汰最早写入的条目，并按邮箱限制重发频率
+ */
+@Component
+@ConditionalOnProperty(name = "verification-code.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private final long ttlMillis;
+    private final long resendIntervalMillis;
+    private final int maxEntries;
+    private final long tickMillis;
+
+    /**
+     * 按写入顺序保存，队首即为容量淘汰对象
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * 时间轮槽位，每个槽位是一个双向链表的表头
+     */
+    private final Entry[] wheel;
+
+    /**
+     * 已处理到的时间刻度
+     */
+    private long currentTick;
+
+    public InMemoryVerificationCodeStore(
+            @Value("${verification-code.ttl-ms:86400000}") long ttlMillis,
+            @Value("${verification-code.resend-interval-ms:60000}") long resendIntervalMillis,
+            @Value("${verification-code.max-entries:100000}") int maxEntries,
+            @Value("${verification-code.tick-ms:1000}") long tickMillis) {
+        this.ttlMillis = ttlMillis;
+        this.resendIntervalMillis = resendIntervalMillis;
+        this.maxEntries = maxEntries;
+        this.tickMillis = tickMillis;
+        // 槽位数覆盖整个有效期，保证同一槽位内的条目在一轮内全部到期
+        this.wheel = new Entry[(int) (ttlMillis / tickMillis) + 2];
+        this.currentTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    @Override
+    public synchronized boolean save(String email, String code) {
+        long now = System.currentTimeMillis();
+        advance(now);
+
+        Entry existing = entries.get(email);
+        if (existing != null) {
+            if (now - existing.lastSentAt < resendIntervalMillis) {
+                return false;
+            }
+            removeEntry(existing);
+        } else if (entries.size() >= maxEntries) {
+            evictEldest();
+        }
+
+        Entry entry = new Entry(email, code, now + ttlMillis, now);
+        link(entry);
+        entries.put(email, entry);
+        return true;
+    }
+
+    @Override
+    public synchronized VerifyResult verify(String email, String code) {
+        long now = System.currentTimeMillis();
+        advance(now);
+
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return VerifyResult.NOT_FOUND;
+        }
+        if (entry.expireAt <= now) {
+            removeEntry(entry);
+            return VerifyResult.EXPIRED;
+        }
+        if (!entry.code.equals(code)) {
+            return VerifyResult.MISMATCH;
+        }
+        return VerifyResult.OK;
+    }
+
+    @Override
+    public synchronized void remove(String email) {
+        Entry entry = entries.get(email);
+        if (entry != null) {
+            removeEntry(entry);
+        }
+    }
+
+    /**
+     * 推进时间轮，清理已经走过的槽位
+     */
+    private void advance(long now) {
+        long targetTick = now / tickMillis;
+        if (targetTick <= currentTick) {
+            return;
+        }
+        // 空闲超过一整轮时只需把每个槽位处理一次
+        long from = Math.max(currentTick + 1, targetTick - wheel.length + 1);
+        for (long tick = from; tick <= targetTick; tick++) {
+            int slot = (int) (tick % wheel.length);
+            Entry entry = wheel[slot];
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.expireTick <= targetTick) {
+                    removeEntry(entry);
+                }
+                entry = next;
+            }
+        }
+        currentTick = targetTick;
+    }
+
+    private void evictEldest() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        if (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            unlink(eldest);
+        }
+    }
+
+    private void removeEntry(Entry entry) {
+        entries.remove(entry.email);
+        unlink(entry);
+    }
+
+    private void link(Entry entry) {
+        // 向上取整，保证条目不会早于过期时间被清理
+        entry.expireTick = (entry.expireAt + tickMillis - 1) / tickMillis;
+        entry.slot = (int) (entry.expireTick % wheel.length);
+        entry.next = wheel[entry.slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        wheel[entry.slot] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (wheel[entry.slot] == entry) {
+            wheel[entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry {
+        final String email;
+        final String code;
+        final long expireAt;
+        final long lastSentAt;
+        long expireTick;
+        int slot;
+        Entry prev;
+        Entry next;
+
+        Entry(String email, String code, long expireAt, long lastSentAt) {
+            this.email = email;
+            this.code = code;
+            this.expireAt = expireAt;
+            this.lastSentAt = lastSentAt;
+        }
+    }
+}
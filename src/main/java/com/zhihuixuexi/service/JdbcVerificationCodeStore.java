@@ -0,0 +1,97 @@
+package com.zhihuixuexi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 基于数据库的验证码存储，多个节点共享同一份验证码
+ * 只使用标准SQL，可运行在MySQL或本地H2上
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "verification-code.store", havingValue = "jdbc")
+public class JdbcVerificationCodeStore implements VerificationCodeStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+    private final long resendIntervalMillis;
+
+    public JdbcVerificationCodeStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${verification-code.ttl-ms:86400000}") long ttlMillis,
+            @Value("${verification-code.resend-interval-ms:60000}") long resendIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttlMillis;
+        this.resendIntervalMillis = resendIntervalMillis;
+    }
+
+    @Override
+    public boolean save(String email, String code) {
+        long now = System.currentTimeMillis();
+
+        // 只有超过重发间隔（或已过期）的记录才允许覆盖，条件更新保证并发下的原子性
+        int updated = jdbcTemplate.update(
+                "UPDATE verification_codes SET code = ?, expire_at = ?, last_sent_at = ? " +
+                        "WHERE email = ? AND (last_sent_at <= ? OR expire_at <= ?)",
+                code, now + ttlMillis, now, email, now - resendIntervalMillis, now);
+        if (updated > 0) {
+            return true;
+        }
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO verification_codes (email, code, expire_at, last_sent_at) VALUES (?, ?, ?, ?)",
+                    email, code, now + ttlMillis, now);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // 记录已存在且仍在重发间隔内
+            return false;
+        }
+    }
+
+    @Override
+    public VerifyResult verify(String email, String code) {
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT code, expire_at FROM verification_codes WHERE email = ?",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)},
+                email);
+        if (rows.isEmpty()) {
+            return VerifyResult.NOT_FOUND;
+        }
+
+        String storedCode = (String) rows.get(0)[0];
+        long expireAt = (Long) rows.get(0)[1];
+        if (expireAt <= System.currentTimeMillis()) {
+            remove(email);
+            return VerifyResult.EXPIRED;
+        }
+        if (!storedCode.equals(code)) {
+            return VerifyResult.MISMATCH;
+        }
+        return VerifyResult.OK;
+    }
+
+    @Override
+    public void remove(String email) {
+        jdbcTemplate.update("DELETE FROM verification_codes WHERE email = ?", email);
+    }
+
+    /**
+     * 定期清理过期验证码（走 expire_at 索引）
+     */
+    @Scheduled(fixedDelayString = "${verification-code.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM verification_codes WHERE expire_at <= ?", System.currentTimeMillis());
+        if (deleted > 0) {
+            log.debug("清理过期验证码 {} 条", deleted);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.entity.EmailOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 开发环境邮件通道：直接在日志中输出邮件内容
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mail.transport", havingValue = "log", matchIfMissing = true)
+public class LogMailTransport implements MailTransport {
+
+    @Override
+    public void send(EmailOutbox email) {
+        log.info("\n{}\n📧 {}\n收件人: {}\n{}\n{}",
+                "=".repeat(60), email.getSubject(), email.getRecipient(), email.getContent(), "=".repeat(60));
+    }
+}
@@ -0,0 +1,14 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.entity.EmailOutbox;
+
+/**
+ * 邮件投递通道（由 EmailOutboxDispatcher 在后台线程调用）
+ */
+public interface MailTransport {
+
+    /**
+     * 投递一封邮件，失败时抛出异常由调度器重试
+     */
+    void send(EmailOutbox email) throws Exception;
+}
@@ -0,0 +1,262 @@
+package com.zhihuixuexi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zhihuixuexi.dto.PageResponse;
+import com.zhihuixuexi.enums.TotalMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 分页查询服务：按 TotalMode 决定是否统计总数
+ * NONE 与 APPROXIMATE 模式只多取一行判断是否有下一页，不执行 COUNT(*)
+ */
+@Service
+public class PageQueryService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 按过滤条件组合缓存的总数
+     */
+    private final Cache<String, Long> totals;
+
+    public PageQueryService(
+            MeterRegistry meterRegistry,
+            @Value("${page.total-cache.ttl-ms:30000}") long ttlMillis,
+            @Value("${page.total-cache.max-size:10000}") long maxSize) {
+        this.totals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, totals, "page.totals");
+    }
+
+    /**
+     * 分页查询
+     *
+     * @param approximateTotal APPROXIMATE 模式下的总数来源
+     */
+    public <T, D> PageResponse<D> findPage(Class<T> type,
+                                           JpaSpecificationExecutor<T> executor,
+                                           Specification<T> spec,
+                                           Pageable pageable,
+                                           TotalMode mode,
+                                           LongSupplier approximateTotal,
+                                           Function<T, D> mapper) {
+        int page = pageable.getPageNumber() + 1;
+        int size = pageable.getPageSize();
+
+        if (mode == null || mode == TotalMode.EXACT) {
+            Page<T> result = executor.findAll(spec, pageable);
+            PageResponse<D> response = new PageResponse<>(map(result.getContent(), mapper),
+                    result.getTotalElements(), page, size, result.getTotalPages());
+            response.setHasNext(result.hasNext());
+            return response;
+        }
+
+        List<T> rows = fetchSlice(type, spec, pageable);
+        return sliceResponse(rows, pageable, mode, approximateTotal, mapper);
+    }
+
+    /**
+     * 分页查询，只读取 columns 指定的列并按顺序传入 projection 的构造器
+     * 结果不是托管实体，不进入持久化上下文，也没有脏检查快照
+     */
+    public <T, D> PageResponse<D> findProjectedPage(Class<T> type,
+                                                    JpaSpecificationExecutor<T> executor,
+                                                    Specification<T> spec,
+                                                    Pageable pageable,
+                                                    TotalMode mode,
+                                                    LongSupplier approximateTotal,
+                                                    Class<D> projection,
+                                                    String... columns) {
+        int page = pageable.getPageNumber() + 1;
+        int size = pageable.getPageSize();
+
+        if (mode == null || mode == TotalMode.EXACT) {
+            List<D> content = findProjected(type, spec, pageable.getSort(), pageable.getOffset(), size,
+                    projection, columns);
+            // 第一页未取满时无需再执行COUNT
+            Page<D> result = PageableExecutionUtils.getPage(content, pageable, () -> executor.count(spec));
+            PageResponse<D> response = new PageResponse<>(content, result.getTotalElements(), page, size,
+                    result.getTotalPages());
+            response.setHasNext(result.hasNext());
+            return response;
+        }
+
+        List<D> rows = findProjected(type, spec, pageable.getSort(), pageable.getOffset(), size + 1,
+                projection, columns);
+        return sliceResponse(rows, pageable, mode, approximateTotal, Function.identity());
+    }
+
+    /**
+     * 按条件查询指定列，按顺序传入 projection 的构造器
+     * 带"."的列（如 course.title）通过 LEFT JOIN 在同一条语句中读取关联实体的字段
+     */
+    public <T, D> List<D> findProjected(Class<T> type,
+                                        Specification<T> spec,
+                                        Sort sort,
+                                        long offset,
+                                        int limit,
+                                        Class<D> projection,
+                                        String... columns) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<D> query = cb.createQuery(projection);
+        Root<T> root = query.from(type);
+        query.select(cb.construct(projection, selections(root, columns)));
+        restrict(query, root, cb, spec, sort);
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 按条件流式读取指定列（只进游标，按 fetchSize 分批从数据库拉取），需在事务中使用并关闭流
+     */
+    public <T, D> Stream<D> streamProjected(Class<T> type,
+                                            Specification<T> spec,
+                                            Sort sort,
+                                            int fetchSize,
+                                            Class<D> projection,
+                                            String... columns) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<D> query = cb.createQuery(projection);
+        Root<T> root = query.from(type);
+        query.select(cb.construct(projection, selections(root, columns)));
+        restrict(query, root, cb, spec, sort);
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * 按条件查询实体ID
+     */
+    public <T> List<Long> findIds(Class<T> type, Specification<T> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(root.get("id"));
+        restrict(query, root, cb, spec, sort);
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 由多取一行的查询结果构建不精确统计总数的分页响应
+     */
+    private <T, D> PageResponse<D> sliceResponse(List<T> rows,
+                                                 Pageable pageable,
+                                                 TotalMode mode,
+                                                 LongSupplier approximateTotal,
+                                                 Function<T, D> mapper) {
+        int page = pageable.getPageNumber() + 1;
+        int size = pageable.getPageSize();
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+
+        PageResponse<D> response = new PageResponse<>();
+        response.setRecords(map(content, mapper));
+        response.setPage(page);
+        response.setSize(size);
+        response.setHasNext(hasNext);
+        if (mode == TotalMode.APPROXIMATE) {
+            // 已经到最后一页时总数是确定的
+            long total = hasNext || content.isEmpty() && page > 1
+                    ? approximateTotal.getAsLong()
+                    : pageable.getOffset() + content.size();
+            response.setTotal(total);
+            response.setTotalPages((int) ((total + size - 1) / size));
+        }
+        return response;
+    }
+
+    /**
+     * 读取缓存的总数，过期或不存在时执行 counter 统计
+     */
+    public long cachedCount(String key, LongSupplier counter) {
+        return totals.get(key, k -> counter.getAsLong());
+    }
+
+    /**
+     * 按偏移量查询 size + 1 行（不统计总数）
+     */
+    private <T> List<T> fetchSlice(Class<T> type, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        restrict(query, root, cb, spec, pageable.getSort());
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+    }
+
+    /**
+     * 解析投影列，同一关联只连接一次
+     */
+    private Selection<?>[] selections(Root<?> root, String[] columns) {
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        Selection<?>[] selections = new Selection<?>[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String column = columns[i];
+            int dot = column.indexOf('.');
+            if (dot < 0) {
+                selections[i] = root.get(column);
+            } else {
+                Join<?, ?> join = joins.computeIfAbsent(column.substring(0, dot), a -> root.join(a, JoinType.LEFT));
+                selections[i] = join.get(column.substring(dot + 1));
+            }
+        }
+        return selections;
+    }
+
+    private <T> void restrict(CriteriaQuery<?> query, Root<T> root, CriteriaBuilder cb,
+                              Specification<T> spec, Sort sort) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+    }
+
+    private <T, D> List<D> map(List<T> content, Function<T, D> mapper) {
+        return content.stream().map(mapper).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+package com.zhihuixuexi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希服务
+ * BCrypt计算在独立的有界线程池中执行，池满时快速拒绝
+ * 调用方（Tomcat请求线程）仍同步等待结果，最长等待 password.hash-pool.timeout-ms；
+ * 同时等待的请求线程数以线程池大小加队列容量为上限，超出的请求立即失败而不排队
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${password.hash-pool.size:4}")
+    private int poolSize;
+
+    @Value("${password.hash-pool.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * 请求线程等待哈希结果的最长时间
+     */
+    @Value("${password.hash-pool.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer matchesTimer;
+
+    private Timer encodeTimer;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        // 队列深度、活跃线程数等由 executor.* 指标提供
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hash", Collections.emptyList());
+        matchesTimer = Timer.builder("password.hash.latency").tag("operation", "matches").register(meterRegistry);
+        encodeTimer = Timer.builder("password.hash.latency").tag("operation", "encode").register(meterRegistry);
+        rejectedCounter = Counter.builder("password.hash.rejected").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 校验密码
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * 加密密码
+     */
+    public String encode(String rawPassword) {
+        return execute(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * 判断已有哈希是否需要按当前成本因子重新计算
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("密码哈希线程池已满，拒绝请求");
+            throw new RuntimeException("系统繁忙，请稍后重试");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("系统繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("请求已中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("密码处理失败", cause);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.entity.RefreshToken;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.repository.RefreshTokenRepository;
+import com.zhihuixuexi.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * 刷新令牌服务
+ * 刷新令牌为随机串，数据库只保存其摘要；每次刷新都会轮换，旧令牌被重复使用时作废该用户的全部令牌
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private Long refreshExpiration;
+
+    /**
+     * 为用户签发新的刷新令牌，返回令牌明文（只需用户ID，不加载用户实体）
+     */
+    @Transactional
+    public String issue(Long userId, Integer tokenEpoch) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setTokenEpoch(tokenEpoch);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000));
+        refreshToken.setRevoked(false);
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+
+    /**
+     * 消费刷新令牌（令牌立即作废），返回其所属用户
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public User consume(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new RuntimeException("刷新令牌无效"));
+
+        // 条件更新保证同一令牌只能被使用一次
+        if (refreshTokenRepository.revoke(refreshToken.getId()) == 0) {
+            Long userId = refreshToken.getUser().getId();
+            log.warn("刷新令牌被重复使用，作废该用户全部刷新令牌 userId={}", userId);
+            refreshTokenRepository.revokeAllByUserId(userId);
+            throw new RuntimeException("刷新令牌已失效，请重新登录");
+        }
+
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("刷新令牌已过期，请重新登录");
+        }
+
+        User user = refreshToken.getUser();
+        if (!user.getTokenEpoch().equals(refreshToken.getTokenEpoch())) {
+            throw new RuntimeException("刷新令牌已失效，请重新登录");
+        }
+        return user;
+    }
+
+    /**
+     * 定期删除过期的刷新令牌
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("清理过期刷新令牌 {} 条", deleted);
+        }
+    }
+
+    private String hash(String rawToken) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.zhihuixuexi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zhihuixuexi.dto.ApiResponse;
+import com.zhihuixuexi.dto.SerializedResponse;
+import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.repository.TaskRepository;
+import com.zhihuixuexi.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * 任务详情响应缓存：按任务ID缓存已序列化的响应体，任务修改或删除时失效
+ * 按字节数限制容量，任务内容较长时不会按条数撑大内存
+ */
+@Service
+public class TaskDetailCache {
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, SerializedResponse> cache;
+
+    public TaskDetailCache(
+            TaskRepository taskRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${task.detail-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${task.detail-cache.ttl-ms:600000}") long ttlMillis) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<Long, SerializedResponse>weigher((id, response) -> response.size())
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks.detail");
+    }
+
+    /**
+     * 获取任务详情接口的完整响应体（已序列化），任务不存在时抛出异常且不缓存
+     */
+    public SerializedResponse getResponse(Long taskId) {
+        return cache.get(taskId, id -> {
+            TaskDTO task = taskRepository.findDtoById(id)
+                    .orElseThrow(() -> new RuntimeException("任务不存在"));
+            return SerializedResponse.of(objectMapper, ApiResponse.success(task));
+        });
+    }
+
+    /**
+     * 任务被修改或删除：立即失效，并在事务提交后再失效一次
+     */
+    public void invalidate(Long taskId) {
+        cache.invalidate(taskId);
+        TransactionUtils.afterCommit(() -> cache.invalidate(taskId));
+    }
+}
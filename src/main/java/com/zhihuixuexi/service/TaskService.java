@@ -1,27 +1,31 @@
 package com.zhihuixuexi.service;
 
 import com.zhihuixuexi.dto.PageResponse;
+import com.zhihuixuexi.dto.SerializedResponse;
 import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.dto.TaskQueryRequest;
 import com.zhihuixuexi.dto.TaskRequest;
 import com.zhihuixuexi.entity.Chapter;
 import com.zhihuixuexi.entity.Course;
 import com.zhihuixuexi.entity.Task;
 import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.TotalMode;
+import com.zhihuixuexi.mapper.TaskMapper;
 import com.zhihuixuexi.repository.ChapterRepository;
 import com.zhihuixuexi.repository.CourseRepository;
 import com.zhihuixuexi.repository.TaskRepository;
+import com.zhihuixuexi.repository.TaskSpecifications;
 import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.KeysetPager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 任务服务
@@ -34,6 +38,9 @@ public class TaskService {
     private final CourseRepository courseRepository;
     private final ChapterRepository chapterRepository;
     private final UserRepository userRepository;
+    private final PageQueryService pageQueryService;
+    private final CourseTaskCache courseTaskCache;
+    private final TaskDetailCache taskDetailCache;
 
     /**
      * 创建任务
@@ -67,6 +74,9 @@ public class TaskService {
         }
 
         Task saved = taskRepository.save(task);
+        if (Boolean.TRUE.equals(saved.getPublished())) {
+            courseTaskCache.invalidate(course.getId());
+        }
         return convertToDTO(saved);
     }
 
@@ -83,6 +93,9 @@ public class TaskService {
             throw new RuntimeException("无权操作该任务");
         }
 
+        // 发布前后任一状态为已发布时，课程的任务列表会变化
+        boolean wasPublished = Boolean.TRUE.equals(task.getPublished());
+
         // 更新字段
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
@@ -105,6 +118,10 @@ public class TaskService {
         }
 
         Task saved = taskRepository.save(task);
+        taskDetailCache.invalidate(taskId);
+        if (wasPublished || Boolean.TRUE.equals(saved.getPublished())) {
+            courseTaskCache.invalidate(saved.getCourse().getId());
+        }
         return convertToDTO(saved);
     }
 
@@ -122,77 +139,99 @@ public class TaskService {
         }
 
         taskRepository.delete(task);
+        taskDetailCache.invalidate(taskId);
+        if (Boolean.TRUE.equals(task.getPublished())) {
+            courseTaskCache.invalidate(task.getCourse().getId());
+        }
     }
 
     /**
-     * 根据ID获取任务
+     * 获取任务详情的已序列化响应体（任务修改或删除前复用同一份字节）
      */
-    public TaskDTO getTaskById(Long taskId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("任务不存在"));
-        return convertToDTO(task);
+    public SerializedResponse getTaskResponse(Long taskId) {
+        return taskDetailCache.getResponse(taskId);
     }
 
     /**
      * 获取机构的任务列表
+     * cursor 不为null时使用游标分页（首页传空字符串），此时忽略 page 且不统计总数；
+     * 否则按 total 决定是否统计总数
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<TaskDTO> getMyTasks(Long creatorId, TaskQueryRequest request) {
+        validateRequest(request);
+        int size = request.getSize();
+        Specification<Task> spec = buildMyTasksSpecification(creatorId, request);
+        if (request.getCursor() != null) {
+            KeysetPager.Result<TaskDTO> result = KeysetPager.fetch(
+                    (where, sort, limit) -> pageQueryService.findProjected(Task.class, where, sort, 0, limit,
+                            TaskDTO.class, TaskRepository.DTO_COLUMNS),
+                    spec, "createdAt", TaskDTO::getCreatedAt, TaskDTO::getId, request.getCursor(), size);
+            return PageResponse.ofCursor(result.getItems(), size, result.getNextCursor(), result.getPrevCursor());
+        }
+
+        Pageable pageable = PageRequest.of(request.getPage() - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        String totalKey = "tasks|" + creatorId + "|" + request.getCourseId() + "|" + request.getChapterId()
+                + "|" + request.getPublished() + "|" + request.getDeadlineFrom() + "|" + request.getDeadlineTo()
+                + "|" + request.getTitle();
+        return pageQueryService.findProjectedPage(Task.class, taskRepository, spec, pageable, request.getTotal(),
+                () -> pageQueryService.cachedCount(totalKey, () -> taskRepository.count(spec)),
+                TaskDTO.class, TaskRepository.DTO_COLUMNS);
+    }
+
+    /**
+     * 校验并规范化查询参数（与用户列表一致：页码从1开始，每页1~100条，未指定总数模式时精确统计）
+     */
+    private void validateRequest(TaskQueryRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("查询请求不能为空");
+        }
+        if (request.getPage() == null || request.getPage() < 1) {
+            request.setPage(1);
+        }
+        if (request.getSize() == null || request.getSize() < 1) {
+            request.setSize(10);
+        }
+        // 限制最大分页大小，防止内存溢出
+        if (request.getSize() > 100) {
+            request.setSize(100);
+        }
+        if (request.getTotal() == null) {
+            request.setTotal(TotalMode.EXACT);
+        }
+        if (request.getTitle() != null && request.getTitle().length() > 200) {
+            throw new IllegalArgumentException("标题长度不能超过200个字符");
+        }
+        if (request.getDeadlineFrom() != null && request.getDeadlineTo() != null
+                && request.getDeadlineFrom().isAfter(request.getDeadlineTo())) {
+            throw new IllegalArgumentException("截止时间范围的开始时间不能晚于结束时间");
+        }
+    }
+
+    /**
+     * 构建机构任务列表的查询条件（未传的过滤项不参与查询）
      */
-    public PageResponse<TaskDTO> getMyTasks(Long creatorId, Long courseId, Boolean published, int page, int size) {
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Task> taskPage;
-
-        if (published != null && courseId != null) {
-            // 同时按课程ID和发布状态筛选
-            taskPage = taskRepository.findByCreatorIdAndCourseIdAndPublished(creatorId, courseId, published, pageable);
-        } else if (published != null) {
-            // 只按发布状态筛选
-            taskPage = taskRepository.findByCreatorIdAndPublished(creatorId, published, pageable);
-        } else if (courseId != null) {
-            // 只按课程ID筛选
-            taskPage = taskRepository.findByCreatorIdAndCourseId(creatorId, courseId, pageable);
-        } else {
-            // 查询所有任务
-            taskPage = taskRepository.findByCreatorId(creatorId, pageable);
-        }
-
-        List<TaskDTO> dtos = taskPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        PageResponse<TaskDTO> response = new PageResponse<>();
-        response.setRecords(dtos);
-        response.setTotal(taskPage.getTotalElements());
-        response.setPage(page);
-        response.setSize(size);
-        response.setTotalPages(taskPage.getTotalPages());
-
-        return response;
+    private Specification<Task> buildMyTasksSpecification(Long creatorId, TaskQueryRequest request) {
+        return Specification.where(TaskSpecifications.creator(creatorId))
+                .and(TaskSpecifications.course(request.getCourseId()))
+                .and(TaskSpecifications.chapter(request.getChapterId()))
+                .and(TaskSpecifications.published(request.getPublished()))
+                .and(TaskSpecifications.deadlineBetween(request.getDeadlineFrom(), request.getDeadlineTo()))
+                .and(TaskSpecifications.titleStartsWith(request.getTitle()));
     }
 
     /**
-     * 获取课程的任务列表（只返回已发布的任务）
+     * 获取课程任务列表（只包含已发布的任务）的已序列化响应体，课程的任务集合变化前复用同一份字节
      */
-    public List<TaskDTO> getCourseTasks(Long courseId) {
-        List<Task> tasks = taskRepository.findByCourseIdAndPublishedTrue(courseId);
-        return tasks.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public SerializedResponse getCourseTasksResponse(Long courseId) {
+        return courseTaskCache.getResponse(courseId);
     }
 
     /**
      * 转换为DTO
      */
     private TaskDTO convertToDTO(Task task) {
-        TaskDTO dto = new TaskDTO();
-        BeanUtils.copyProperties(task, dto);
-        dto.setCourseId(task.getCourse().getId());
-        dto.setCourseTitle(task.getCourse().getTitle());
-        dto.setCreatorId(task.getCreator().getId());
-        dto.setCreatorName(task.getCreator().getUsername());
-        if (task.getChapter() != null) {
-            dto.setChapterId(task.getChapter().getId());
-            dto.setChapterTitle(task.getChapter().getTitle());
-        }
-        return dto;
+        return TaskMapper.toDTO(task);
     }
 }
 
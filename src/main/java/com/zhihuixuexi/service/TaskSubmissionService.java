@@ -7,15 +7,18 @@ import com.zhihuixuexi.dto.TaskSubmissionRequest;
 import com.zhihuixuexi.entity.Task;
 import com.zhihuixuexi.entity.TaskSubmission;
 import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.TotalMode;
+import com.zhihuixuexi.mapper.TaskSubmissionMapper;
 import com.zhihuixuexi.repository.TaskRepository;
 import com.zhihuixuexi.repository.TaskSubmissionRepository;
 import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.KeysetPager;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +36,7 @@ public class TaskSubmissionService {
     private final TaskSubmissionRepository submissionRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final PageQueryService pageQueryService;
 
     /**
      * 提交任务
@@ -94,7 +98,19 @@ public class TaskSubmissionService {
     /**
      * 获取任务的提交列表
      */
+    @Transactional(readOnly = true)
     public PageResponse<TaskSubmissionDTO> getTaskSubmissions(Long taskId, Long creatorId, int page, int size) {
+        return getTaskSubmissions(taskId, creatorId, page, size, null, TotalMode.EXACT);
+    }
+
+    /**
+     * 获取任务的提交列表
+     * cursor 不为null时使用游标分页（首页传空字符串），此时忽略 page 且不统计总数；
+     * 否则按 totalMode 决定是否统计总数
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<TaskSubmissionDTO> getTaskSubmissions(Long taskId, Long creatorId, int page, int size,
+                                                              String cursor, TotalMode totalMode) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("任务不存在"));
 
@@ -103,7 +119,16 @@ public class TaskSubmissionService {
             throw new RuntimeException("无权查看该任务的提交");
         }
 
+        Specification<TaskSubmission> spec = (root, query, cb) -> cb.equal(root.get("task").get("id"), taskId);
+        if (cursor != null) {
+            return fetchByCursor(spec, cursor, size);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "submittedAt"));
+        if (totalMode != null && totalMode != TotalMode.EXACT) {
+            return fetchWithoutCount(spec, "submissions|task|" + taskId, pageable, totalMode);
+        }
+
         Page<TaskSubmission> submissionPage = submissionRepository.findByTaskId(taskId, pageable);
 
         List<TaskSubmissionDTO> dtos = submissionPage.getContent().stream()
@@ -123,8 +148,29 @@ public class TaskSubmissionService {
     /**
      * 获取用户的提交列表
      */
+    @Transactional(readOnly = true)
     public PageResponse<TaskSubmissionDTO> getUserSubmissions(Long userId, int page, int size) {
+        return getUserSubmissions(userId, page, size, null, TotalMode.EXACT);
+    }
+
+    /**
+     * 获取用户的提交列表
+     * cursor 不为null时使用游标分页（首页传空字符串），此时忽略 page 且不统计总数；
+     * 否则按 totalMode 决定是否统计总数
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<TaskSubmissionDTO> getUserSubmissions(Long userId, int page, int size, String cursor,
+                                                              TotalMode totalMode) {
+        Specification<TaskSubmission> spec = (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+        if (cursor != null) {
+            return fetchByCursor(spec, cursor, size);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "submittedAt"));
+        if (totalMode != null && totalMode != TotalMode.EXACT) {
+            return fetchWithoutCount(spec, "submissions|user|" + userId, pageable, totalMode);
+        }
+
         Page<TaskSubmission> submissionPage = submissionRepository.findByUserId(userId, pageable);
 
         List<TaskSubmissionDTO> dtos = submissionPage.getContent().stream()
@@ -144,23 +190,40 @@ public class TaskSubmissionService {
     /**
      * 获取提交详情
      */
+    @Transactional(readOnly = true)
     public TaskSubmissionDTO getSubmissionById(Long submissionId) {
         TaskSubmission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new RuntimeException("提交记录不存在"));
         return convertToDTO(submission);
     }
 
+    /**
+     * 按 (submittedAt, id) 游标分页查询
+     */
+    private PageResponse<TaskSubmissionDTO> fetchByCursor(Specification<TaskSubmission> spec, String cursor, int size) {
+        KeysetPager.Result<TaskSubmission> result = KeysetPager.fetch(submissionRepository, spec, "submittedAt",
+                TaskSubmission::getSubmittedAt, TaskSubmission::getId, cursor, size);
+        List<TaskSubmissionDTO> dtos = result.getItems().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return PageResponse.ofCursor(dtos, size, result.getNextCursor(), result.getPrevCursor());
+    }
+
+    /**
+     * 不执行COUNT的分页查询（NONE 不返回总数，APPROXIMATE 使用缓存的总数）
+     */
+    private PageResponse<TaskSubmissionDTO> fetchWithoutCount(Specification<TaskSubmission> spec, String totalKey,
+                                                              Pageable pageable, TotalMode totalMode) {
+        return pageQueryService.findPage(TaskSubmission.class, submissionRepository, spec, pageable, totalMode,
+                () -> pageQueryService.cachedCount(totalKey, () -> submissionRepository.count(spec)),
+                this::convertToDTO);
+    }
+
     /**
      * 转换为DTO
      */
     private TaskSubmissionDTO convertToDTO(TaskSubmission submission) {
-        TaskSubmissionDTO dto = new TaskSubmissionDTO();
-        BeanUtils.copyProperties(submission, dto);
-        dto.setTaskId(submission.getTask().getId());
-        dto.setTaskTitle(submission.getTask().getTitle());
-        dto.setUserId(submission.getUser().getId());
-        dto.setUsername(submission.getUser().getUsername());
-        return dto;
+        return TaskSubmissionMapper.toDTO(submission);
     }
 }
 
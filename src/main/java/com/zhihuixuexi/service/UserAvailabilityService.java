@@ -0,0 +1,108 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * 用户名/邮箱可用性检查
+ * 启动时将 users 表中的用户名和邮箱载入布隆过滤器：过滤器判定"一定不存在"时直接返回可用，
+ * 只有可能冲突时才查询数据库。删除用户不会从过滤器中移除，这类名称仍会回落到数据库查询
+ */
+@Slf4j
+@Service
+public class UserAvailabilityService {
+
+    private final UserRepository userRepository;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private final Counter filterHits;
+    private final Counter databaseChecks;
+
+    /**
+     * 预热完成前全部走数据库查询
+     */
+    private volatile boolean ready;
+
+    public UserAvailabilityService(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.availability.expected-users:1000000}") long expectedUsers,
+            @Value("${user.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.filterHits = Counter.builder("user.availability.checks").tag("source", "filter").register(meterRegistry);
+        this.databaseChecks = Counter.builder("user.availability.checks").tag("source", "database").register(meterRegistry);
+    }
+
+    /**
+     * 启动后流式读取 users 表预热过滤器
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long count = 0;
+        try (Stream<Object[]> rows = userRepository.streamUsernamesAndEmails()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                markTaken((String) row[0], (String) row[1]);
+                count++;
+            }
+        }
+        ready = true;
+        log.info("用户名/邮箱过滤器预热完成，共 {} 个用户", count);
+    }
+
+    /**
+     * 用户名是否可用
+     */
+    public boolean isUsernameAvailable(String username) {
+        if (ready && !usernames.mightContain(normalize(username))) {
+            filterHits.increment();
+            return true;
+        }
+        databaseChecks.increment();
+        return !userRepository.existsByUsername(username);
+    }
+
+    /**
+     * 邮箱是否可用
+     */
+    public boolean isEmailAvailable(String email) {
+        if (ready && !emails.mightContain(normalize(email))) {
+            filterHits.increment();
+            return true;
+        }
+        databaseChecks.increment();
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * 记录已被占用的用户名和邮箱（新增用户、修改用户名/邮箱时调用）
+     */
+    public void markTaken(String username, String email) {
+        if (username != null) {
+            usernames.put(normalize(username));
+        }
+        if (email != null) {
+            emails.put(normalize(email));
+        }
+    }
+
+    /**
+     * MySQL默认排序规则不区分大小写，过滤器按小写存储
+     */
+    private String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
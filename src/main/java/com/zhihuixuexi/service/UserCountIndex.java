@@ -0,0 +1,123 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按 角色/封禁/启用 组合维护的用户数
+ * 写操作在事务提交后增量更新，定期从数据库全量校正（多节点部署时其他节点的写入在校正后体现）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserCountIndex {
+
+    private final UserRepository userRepository;
+
+    /**
+     * 下标为 role.ordinal() * 4 + banned * 2 + enabled
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(UserRole.values().length * 4);
+
+    private volatile boolean ready;
+
+    /**
+     * 从数据库加载各组合的用户数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${user.count-index.refresh-interval-ms:300000}",
+            fixedDelayString = "${user.count-index.refresh-interval-ms:300000}")
+    public void reload() {
+        long[] loaded = new long[counts.length()];
+        List<Object[]> rows = userRepository.countGroupByRoleAndStatus();
+        for (Object[] row : rows) {
+            loaded[index((UserRole) row[0], (Boolean) row[1], (Boolean) row[2])] = (Long) row[3];
+        }
+        for (int i = 0; i < loaded.length; i++) {
+            counts.set(i, loaded[i]);
+        }
+        ready = true;
+        log.debug("用户计数已刷新");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 统计满足条件的用户数，参数为null表示不限
+     */
+    public long count(UserRole role, Boolean banned, Boolean enabled) {
+        long total = 0;
+        for (UserRole r : UserRole.values()) {
+            if (role != null && role != r) {
+                continue;
+            }
+            for (int b = 0; b < 2; b++) {
+                if (banned != null && banned != (b == 1)) {
+                    continue;
+                }
+                for (int e = 0; e < 2; e++) {
+                    if (enabled != null && enabled != (e == 1)) {
+                        continue;
+                    }
+                    total += counts.get(r.ordinal() * 4 + b * 2 + e);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 新增用户
+     */
+    public void added(User user) {
+        int index = index(user.getRole(), user.getBanned(), user.getEnabled());
+        TransactionUtils.afterCommit(() -> counts.incrementAndGet(index));
+    }
+
+    /**
+     * 删除用户
+     */
+    public void removed(User user) {
+        removed(user.getRole(), user.getBanned(), user.getEnabled());
+    }
+
+    /**
+     * 删除用户（按角色和状态）
+     */
+    public void removed(UserRole role, Boolean banned, Boolean enabled) {
+        int index = index(role, banned, enabled);
+        TransactionUtils.afterCommit(() -> counts.decrementAndGet(index));
+    }
+
+    /**
+     * 封禁/启用状态变化
+     */
+    public void statusChanged(UserRole role, Boolean oldBanned, Boolean oldEnabled, Boolean newBanned, Boolean newEnabled) {
+        int from = index(role, oldBanned, oldEnabled);
+        int to = index(role, newBanned, newEnabled);
+        if (from == to) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            counts.decrementAndGet(from);
+            counts.incrementAndGet(to);
+        });
+    }
+
+    private int index(UserRole role, Boolean banned, Boolean enabled) {
+        return role.ordinal() * 4 + (Boolean.TRUE.equals(banned) ? 2 : 0) + (Boolean.TRUE.equals(enabled) ? 1 : 0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.zhihuixuexi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zhihuixuexi.dto.UserDTO;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.DataFormat;
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.CsvWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 用户导出：在只读事务中通过只进游标逐行读取 UserDTO 投影并直接写入响应流，
+ * 行不进入持久化上下文，内存占用与导出行数无关
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+    private final PageQueryService pageQueryService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public UserExportService(
+            PageQueryService pageQueryService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${user.export.fetch-size:1000}") int fetchSize) {
+        this.pageQueryService = pageQueryService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * 按条件导出用户，spec 为null时只输出表头（CSV）或空内容（NDJSON）
+     */
+    public void export(Specification<User> spec, DataFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == DataFormat.CSV) {
+            CsvWriter.writeRecord(writer, (Object[]) UserRepository.DTO_COLUMNS);
+        }
+
+        if (spec != null) {
+            try {
+                long count = readOnlyTransaction.execute(status -> writeRows(spec, format, writer));
+                log.info("导出用户 {} 条", count);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        writer.flush();
+    }
+
+    private long writeRows(Specification<User> spec, DataFormat format, Writer writer) {
+        long count = 0;
+        try (Stream<UserDTO> rows = pageQueryService.streamProjected(User.class, spec,
+                Sort.by(Sort.Direction.ASC, "id"), fetchSize, UserDTO.class, UserRepository.DTO_COLUMNS)) {
+            Iterator<UserDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                UserDTO user = iterator.next();
+                if (format == DataFormat.NDJSON) {
+                    writer.write(objectMapper.writeValueAsString(user));
+                    writer.write('\n');
+                } else {
+                    CsvWriter.writeRecord(writer, user.getId(), user.getUsername(), user.getEmail(), user.getRole(),
+                            user.getPhone(), user.getOrganization(), user.getAddress(), user.getAvatar(),
+                            user.getEmailVerified(), user.getEnabled(), user.getBanned(), user.getCreatedAt(),
+                            user.getUpdatedAt());
+                }
+                count++;
+            }
+        } catch (IOException e) {
+            // 客户端断开等写入失败时中止读取并关闭游标
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
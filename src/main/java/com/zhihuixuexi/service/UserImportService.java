@@ -0,0 +1,424 @@
+package com.zhihuixuexi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zhihuixuexi.dto.UserImportResult;
+import com.zhihuixuexi.dto.UserImportRow;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.DataFormat;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.CsvReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入用户
+ * 流式解析CSV/NDJSON，按批处理：批内校验、批量查重、在ForkJoin线程池中并行计算密码哈希、JDBC批量插入；
+ * 单行错误记录到结果中，不影响其余行
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    /**
+     * 与管理员创建用户时的默认密码一致
+     */
+    private static final String DEFAULT_PASSWORD = "123456";
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
+    private static final String INSERT_SQL = "INSERT INTO users (username, password, email, role, phone, organization, "
+            + "address, email_verified, enabled, banned, token_epoch, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final UserAvailabilityService userAvailabilityService;
+    private final UserCountIndex userCountIndex;
+    private final UserSearchIndex userSearchIndex;
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    /**
+     * 导入专用的哈希线程池，不占用登录/注册使用的 PasswordHashService 线程池
+     */
+    private final ForkJoinPool hashPool;
+
+    public UserImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper,
+            UserAvailabilityService userAvailabilityService,
+            UserCountIndex userCountIndex,
+            UserSearchIndex userSearchIndex,
+            @Value("${user.import.batch-size:500}") int batchSize,
+            @Value("${user.import.hash-parallelism:0}") int hashParallelism,
+            @Value("${user.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.userAvailabilityService = userAvailabilityService;
+        this.userCountIndex = userCountIndex;
+        this.userSearchIndex = userSearchIndex;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.hashPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    /**
+     * 导入用户，输入流按 format 解析
+     */
+    public UserImportResult importUsers(InputStream input, DataFormat format, UserRole role) throws IOException {
+        if (role == null) {
+            throw new IllegalArgumentException("角色不能为空");
+        }
+
+        ImportJob job = new ImportJob(role);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (format == DataFormat.NDJSON) {
+            readNdjson(reader, job);
+        } else {
+            readCsv(reader, job);
+        }
+        job.flush();
+
+        log.info("批量导入用户完成 total={} imported={} failed={}",
+                job.result.getTotal(), job.result.getImported(), job.result.getFailed());
+        return job.result;
+    }
+
+    private void readCsv(BufferedReader reader, ImportJob job) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            // 去掉Excel导出文件开头的BOM
+            columns[i] = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+        }
+        List<String> columnList = Arrays.asList(columns);
+        if (!columnList.contains("username") || !columnList.contains("email")) {
+            throw new IllegalArgumentException("CSV表头必须包含 username 和 email 列");
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            UserImportRow row = new UserImportRow();
+            for (int i = 0; i < columns.length && i < record.size(); i++) {
+                String value = record.get(i);
+                switch (columns[i]) {
+                    case "username" -> row.setUsername(value);
+                    case "email" -> row.setEmail(value);
+                    case "password" -> row.setPassword(value);
+                    case "phone" -> row.setPhone(value);
+                    case "organization" -> row.setOrganization(value);
+                    case "address" -> row.setAddress(value);
+                    default -> {
+                        // 忽略未知列
+                    }
+                }
+            }
+            job.add(csv.getLineNumber(), row);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportJob job) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            UserImportRow row;
+            try {
+                row = objectMapper.readValue(line, UserImportRow.class);
+            } catch (JsonProcessingException e) {
+                job.countRow();
+                job.fail(lineNumber, null, "JSON格式错误");
+                continue;
+            }
+            job.add(lineNumber, row);
+        }
+    }
+
+    /**
+     * 处理一批数据行
+     */
+    private void processBatch(List<PendingRow> batch, ImportJob job) {
+        List<PendingRow> accepted = new ArrayList<>(batch.size());
+        for (PendingRow pending : batch) {
+            String error = validate(pending.row);
+            if (error == null) {
+                error = job.claim(pending.row);
+            }
+            if (error != null) {
+                job.fail(pending.line, pending.row.getUsername(), error);
+            } else {
+                accepted.add(pending);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // 与已有用户批量查重（两条IN查询代替逐行exists查询）
+        Set<String> existingUsernames = lowerCase(userRepository.findExistingUsernames(
+                accepted.stream().map(p -> p.row.getUsername()).collect(Collectors.toList())));
+        Set<String> existingEmails = lowerCase(userRepository.findExistingEmails(
+                accepted.stream().map(p -> p.row.getEmail()).collect(Collectors.toList())));
+        Iterator<PendingRow> iterator = accepted.iterator();
+        while (iterator.hasNext()) {
+            PendingRow pending = iterator.next();
+            if (existingUsernames.contains(pending.row.getUsername().toLowerCase(Locale.ROOT))) {
+                job.fail(pending.line, pending.row.getUsername(), "用户名已存在");
+                iterator.remove();
+            } else if (existingEmails.contains(pending.row.getEmail().toLowerCase(Locale.ROOT))) {
+                job.fail(pending.line, pending.row.getUsername(), "邮箱已被注册");
+                iterator.remove();
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // 并行计算密码哈希（parallelStream 在提交它的 ForkJoinPool 中执行）
+        hashPool.submit(() -> accepted.parallelStream().forEach(pending -> pending.passwordHash =
+                passwordEncoder.encode(StringUtils.hasText(pending.row.getPassword())
+                        ? pending.row.getPassword() : DEFAULT_PASSWORD))).join();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingRow> inserted;
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, accepted,
+                    batchSize, (ps, pending) -> bindInsert(ps, pending, job.role, now)));
+            inserted = accepted;
+        } catch (DataIntegrityViolationException e) {
+            // 查重之后有并发写入，整批回滚后逐行插入以定位冲突行
+            inserted = insertOneByOne(accepted, job, now);
+        }
+
+        job.result.setImported(job.result.getImported() + inserted.size());
+        publish(inserted, job.role);
+    }
+
+    private List<PendingRow> insertOneByOne(List<PendingRow> rows, ImportJob job, LocalDateTime now) {
+        List<PendingRow> inserted = new ArrayList<>(rows.size());
+        for (PendingRow pending : rows) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bindInsert(ps, pending, job.role, now));
+                inserted.add(pending);
+            } catch (DataIntegrityViolationException e) {
+                job.fail(pending.line, pending.row.getUsername(), "用户名或邮箱已存在");
+            }
+        }
+        return inserted;
+    }
+
+    private void bindInsert(PreparedStatement ps, PendingRow pending, UserRole role, LocalDateTime now)
+            throws SQLException {
+        UserImportRow row = pending.row;
+        Timestamp timestamp = Timestamp.valueOf(now);
+        ps.setString(1, row.getUsername());
+        ps.setString(2, pending.passwordHash);
+        ps.setString(3, row.getEmail());
+        ps.setString(4, role.name());
+        ps.setString(5, row.getPhone());
+        ps.setString(6, row.getOrganization());
+        ps.setString(7, row.getAddress());
+        ps.setBoolean(8, true); // 管理员导入的用户默认邮箱已验证
+        ps.setBoolean(9, true);
+        ps.setBoolean(10, false);
+        ps.setInt(11, 0);
+        ps.setTimestamp(12, timestamp);
+        ps.setTimestamp(13, timestamp);
+    }
+
+    /**
+     * 插入成功后同步可用性过滤器、用户计数和搜索索引
+     */
+    private void publish(List<PendingRow> inserted, UserRole role) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        Map<String, PendingRow> byUsername = new HashMap<>();
+        for (PendingRow pending : inserted) {
+            byUsername.put(pending.row.getUsername(), pending);
+        }
+        for (Object[] idAndName : userRepository.findIdsByUsernames(byUsername.keySet())) {
+            PendingRow pending = byUsername.get((String) idAndName[1]);
+            if (pending == null) {
+                continue;
+            }
+            User user = new User();
+            user.setId((Long) idAndName[0]);
+            user.setUsername(pending.row.getUsername());
+            user.setEmail(pending.row.getEmail());
+            user.setOrganization(pending.row.getOrganization());
+            user.setRole(role);
+            user.setEnabled(true);
+            user.setBanned(false);
+            userAvailabilityService.markTaken(user.getUsername(), user.getEmail());
+            userCountIndex.added(user);
+            userSearchIndex.indexed(user);
+        }
+    }
+
+    /**
+     * 校验单行数据，返回错误信息，通过时返回null
+     */
+    private String validate(UserImportRow row) {
+        row.setUsername(trimToNull(row.getUsername()));
+        row.setEmail(trimToNull(row.getEmail()));
+        row.setPhone(trimToNull(row.getPhone()));
+        row.setOrganization(trimToNull(row.getOrganization()));
+        row.setAddress(trimToNull(row.getAddress()));
+
+        if (row.getUsername() == null) {
+            return "用户名不能为空";
+        }
+        if (row.getUsername().length() < 3 || row.getUsername().length() > 50) {
+            return "用户名长度必须在3-50个字符之间";
+        }
+        if (row.getEmail() == null) {
+            return "邮箱不能为空";
+        }
+        if (row.getEmail().length() > 100 || !EMAIL_PATTERN.matcher(row.getEmail()).matches()) {
+            return "邮箱格式不正确";
+        }
+        if (row.getPhone() != null && row.getPhone().length() > 20) {
+            return "联系方式长度不能超过20个字符";
+        }
+        if (row.getOrganization() != null && row.getOrganization().length() > 100) {
+            return "机构名称长度不能超过100个字符";
+        }
+        if (row.getAddress() != null && row.getAddress().length() > 200) {
+            return "地址长度不能超过200个字符";
+        }
+        return null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static Set<String> lowerCase(Collection<String> values) {
+        return values.stream().map(v -> v.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+
+    /**
+     * 待处理的数据行
+     */
+    private static class PendingRow {
+
+        private final long line;
+        private final UserImportRow row;
+        private String passwordHash;
+
+        PendingRow(long line, UserImportRow row) {
+            this.line = line;
+            this.row = row;
+        }
+    }
+
+    /**
+     * 一次导入任务的状态
+     */
+    private class ImportJob {
+
+        private final UserRole role;
+        private final UserImportResult result = new UserImportResult();
+        private final List<PendingRow> batch = new ArrayList<>();
+
+        /**
+         * 本次导入中已出现的用户名/邮箱（小写），用于文件内查重
+         */
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+
+        ImportJob(UserRole role) {
+            this.role = role;
+        }
+
+        void add(long line, UserImportRow row) {
+            countRow();
+            batch.add(new PendingRow(line, row));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void countRow() {
+            result.setTotal(result.getTotal() + 1);
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                processBatch(new ArrayList<>(batch), this);
+                batch.clear();
+            }
+        }
+
+        /**
+         * 登记用户名和邮箱，文件内重复时返回错误信息
+         */
+        String claim(UserImportRow row) {
+            if (!usernames.add(row.getUsername().toLowerCase(Locale.ROOT))) {
+                return "文件中用户名重复";
+            }
+            if (!emails.add(row.getEmail().toLowerCase(Locale.ROOT))) {
+                return "文件中邮箱重复";
+            }
+            return null;
+        }
+
+        void fail(long line, String username, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new UserImportResult.RowError(line, username, message));
+            }
+        }
+    }
+}
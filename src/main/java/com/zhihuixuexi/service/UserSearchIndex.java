@@ -0,0 +1,215 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.util.TransactionUtils;
+import com.zhihuixuexi.util.TrigramIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 用户模糊搜索索引
+ * 为用户名、邮箱、机构名称维护三元组倒排索引，子串查询先在内存中解析出候选用户ID，再按ID到数据库取一页，
+ * 避免 LIKE '%x%' 全表扫描。启动时流式读取 users 表构建，写操作在事务提交后增量更新，并定期全量重建
+ */
+@Slf4j
+@Service
+public class UserSearchIndex {
+
+    private final UserRepository userRepository;
+    private final Counter indexQueries;
+    private final Counter databaseQueries;
+
+    /**
+     * 候选ID超过该数量时回落到数据库 LIKE 查询，避免生成过长的 IN 列表
+     */
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Fields fields = new Fields();
+
+    /**
+     * 重建期间发生的变更，重建完成后重放到新索引上
+     */
+    private List<Change> pendingChanges;
+
+    /**
+     * 首次构建完成前全部走数据库查询
+     */
+    private volatile boolean ready;
+
+    public UserSearchIndex(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.search-index.max-candidates:5000}") int maxCandidates) {
+        this.userRepository = userRepository;
+        this.maxCandidates = maxCandidates;
+        this.indexQueries = Counter.builder("user.search.queries").tag("source", "index").register(meterRegistry);
+        this.databaseQueries = Counter.builder("user.search.queries").tag("source", "database").register(meterRegistry);
+    }
+
+    /**
+     * 流式读取 users 表构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${user.search-index.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${user.search-index.rebuild-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        withWriteLock(() -> pendingChanges = new ArrayList<>());
+
+        Fields rebuilt = new Fields();
+        try (Stream<Object[]> rows = userRepository.streamSearchFields()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                rebuilt.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            }
+        } catch (RuntimeException e) {
+            withWriteLock(() -> pendingChanges = null);
+            throw e;
+        }
+
+        withWriteLock(() -> {
+            for (Change change : pendingChanges) {
+                change.applyTo(rebuilt);
+            }
+            pendingChanges = null;
+            fields = rebuilt;
+        });
+        ready = true;
+        log.info("用户搜索索引构建完成，共 {} 个用户", rebuilt.username.size());
+    }
+
+    /**
+     * 按用户名、邮箱、机构名称的子串查找用户ID（升序），参数为空表示不限
+     * 返回null表示无法通过索引回答（索引未就绪、查询词都短于3个字符或候选过多），调用方应回落到数据库查询
+     */
+    public long[] search(String username, String email, String organization) {
+        if (!ready) {
+            databaseQueries.increment();
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = smallest(null, fields.username.search(username));
+            candidates = smallest(candidates, fields.email.search(email));
+            candidates = smallest(candidates, fields.organization.search(organization));
+            if (candidates == null) {
+                databaseQueries.increment();
+                return null;
+            }
+
+            // 用其余字段（包括短于3个字符的查询词）过滤候选
+            int count = 0;
+            for (long id : candidates) {
+                if (fields.username.matches(id, username)
+                        && fields.email.matches(id, email)
+                        && fields.organization.matches(id, organization)) {
+                    candidates[count++] = id;
+                }
+            }
+            if (count > maxCandidates) {
+                databaseQueries.increment();
+                return null;
+            }
+            indexQueries.increment();
+            return Arrays.copyOf(candidates, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或修改用户后更新索引（事务提交后生效）
+     */
+    public void indexed(User user) {
+        Change change = new Change(user.getId(), user.getUsername(), user.getEmail(), user.getOrganization());
+        TransactionUtils.afterCommit(() -> apply(change));
+    }
+
+    /**
+     * 删除用户后更新索引（事务提交后生效）
+     */
+    public void removed(Long id) {
+        Change change = new Change(id, null, null, null);
+        TransactionUtils.afterCommit(() -> apply(change));
+    }
+
+    private void apply(Change change) {
+        withWriteLock(() -> {
+            change.applyTo(fields);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long[] smallest(long[] current, long[] candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.length < current.length ? candidate : current;
+    }
+
+    /**
+     * 三个字段各自的索引
+     */
+    private static class Fields {
+
+        private final TrigramIndex username = new TrigramIndex();
+        private final TrigramIndex email = new TrigramIndex();
+        private final TrigramIndex organization = new TrigramIndex();
+
+        void put(long id, String usernameValue, String emailValue, String organizationValue) {
+            username.put(id, usernameValue);
+            email.put(id, emailValue);
+            organization.put(id, organizationValue);
+        }
+    }
+
+    /**
+     * 单个用户的变更，字段全为null表示删除
+     */
+    private static class Change {
+
+        private final long id;
+        private final String username;
+        private final String email;
+        private final String organization;
+
+        Change(long id, String username, String email, String organization) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+            this.organization = organization;
+        }
+
+        void applyTo(Fields target) {
+            target.put(id, username, email, organization);
+        }
+    }
+}
@@ -1,52 +1,108 @@
 package com.zhihuixuexi.service;
 
 import com.zhihuixuexi.dto.PageResponse;
+import com.zhihuixuexi.dto.ResourceVersion;
+import com.zhihuixuexi.dto.UserBulkRequest;
+import com.zhihuixuexi.dto.UserBulkResult;
 import com.zhihuixuexi.dto.UserDTO;
 import com.zhihuixuexi.dto.UserQueryRequest;
 import com.zhihuixuexi.dto.UserUpdateRequest;
 import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.DataFormat;
 import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.mapper.UserMapper;
+import com.zhihuixuexi.repository.RefreshTokenRepository;
 import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.security.AuthRecordCache;
+import com.zhihuixuexi.security.TokenRevocationRegistry;
+import com.zhihuixuexi.util.KeysetPager;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
-import org.springframework.data.domain.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * 用户服务类
  */
 @Service
+@Slf4j
 @RequiredArgsConstructor
-public PageResponse<UserDTO> getUserList(UserQueryRequest request) {
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final PasswordHashService passwordHashService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserAvailabilityService userAvailabilityService;
+    private final PageQueryService pageQueryService;
+    private final UserCountIndex userCountIndex;
+    private final UserSearchIndex userSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final UserExportService userExportService;
+    private final AuthRecordCache authRecordCache;
+
+    /**
+     * 批量操作每个事务处理的用户数，控制行锁持有时间
+     */
+    @Value("${user.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    /**
+     * 分页查询用户列表
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserDTO> getUserList(UserQueryRequest request) {
         try {
         // 参数校验
         validateRequest(request);
 
-        // 构建查询条件
-        Specification<User> spec = buildSpecification(request);
+        // 构建查询条件（子串条件先通过内存索引解析为候选ID）
+        Specification<User> spec = resolveSpecification(request);
+        if (spec == null) {
+        return request.getCursor() != null
+        ? PageResponse.ofCursor(Collections.emptyList(), request.getSize(), null, null)
+        : buildEmptyResponse(request);
+        }
+
+        // 游标分页：按 (createdAt, id) 定位，不执行OFFSET和COUNT
+        if (request.getCursor() != null) {
+            KeysetPager.Result<UserDTO> result = KeysetPager.fetch(
+                    (where, sort, limit) -> pageQueryService.findProjected(User.class, where, sort, 0, limit,
+                            UserDTO.class, UserRepository.DTO_COLUMNS),
+                    spec, "createdAt", UserDTO::getCreatedAt, UserDTO::getId, request.getCursor(), request.getSize());
+            return PageResponse.ofCursor(result.getItems(), request.getSize(),
+                    result.getNextCursor(), result.getPrevCursor());
+        }
 
         // 构建分页和排序
         Pageable pageable = buildPageable(request);
 
-        // 执行查询
-        Page<User> page = userRepository.findAll(spec, pageable);
-
-        // 转换为DTO
-        List<UserDTO> userDTOs = convertToDTOList(page.getContent());
-
-        // 构建响应
-        return buildPageResponse(userDTOs, page, request);
+        // 执行查询（按 total 参数决定是否统计总数），只读取 UserDTO 需要的列
+        return pageQueryService.findProjectedPage(User.class, userRepository, spec, pageable, request.getTotal(),
+                () -> approximateUserCount(request, spec), UserDTO.class, UserRepository.DTO_COLUMNS);
 
         } catch (IllegalArgumentException e) {
         log.warn("用户列表查询参数错误: {}", e.getMessage());
@@ -95,17 +151,36 @@ private void validateStringLength(String value, String fieldName, int maxLength)
         }
         }
 
+/**
+ * 构建查询条件：用户名/邮箱/机构的子串条件先通过搜索索引解析为候选ID
+ * 索引确定没有匹配的用户时返回null
+ */
+private Specification<User> resolveSpecification(UserQueryRequest request) {
+        long[] candidateIds = userSearchIndex.search(
+        request.getUsername(), request.getEmail(), request.getOrganization());
+        if (candidateIds != null && candidateIds.length == 0) {
+        return null;
+        }
+        return buildSpecification(request, candidateIds);
+        }
+
 /**
  * 构建查询条件
+ * candidateIds 不为null时表示字符串条件已由搜索索引解析，按主键过滤即可
  */
-private Specification<User> buildSpecification(UserQueryRequest request) {
+private Specification<User> buildSpecification(UserQueryRequest request, long[] candidateIds) {
+        List<Long> ids = candidateIds == null ? null : Arrays.stream(candidateIds).boxed().collect(Collectors.toList());
         return (root, query, cb) -> {
         List<Predicate> predicates = new ArrayList<>();
 
+        if (ids != null) {
+        predicates.add(root.get("id").in(ids));
+        } else {
         // 字符串字段模糊查询（统一处理逻辑）
         processStringFieldQuery(predicates, request.getUsername(), "username", root, cb);
         processStringFieldQuery(predicates, request.getEmail(), "email", root, cb);
         processStringFieldQuery(predicates, request.getOrganization(), "organization", root, cb);
+        }
 
         // 枚举字段精确查询
         processEnumFieldQuery(predicates, request.getRole(), "role", root, cb);
@@ -171,30 +246,23 @@ private Pageable buildPageable(UserQueryRequest request) {
         }
 
 /**
- * 转换实体列表为DTO列表
+ * 近似总数：只按角色/封禁/启用过滤时读取增量维护的计数，否则使用按过滤条件缓存的COUNT结果
  */
-private List<UserDTO> convertToDTOList(List<User> users) {
-        if (users == null || users.isEmpty()) {
-        return Collections.emptyList();
-        }
-
-        return users.stream()
-        .filter(Objects::nonNull) // 过滤空对象
-        .map(this::convertToDTO)
-        .collect(Collectors.toList());
+private long approximateUserCount(UserQueryRequest request, Specification<User> spec) {
+        boolean statusFilterOnly = !StringUtils.hasText(request.getUsername())
+        && !StringUtils.hasText(request.getEmail())
+        && !StringUtils.hasText(request.getOrganization())
+        && request.getEmailVerified() == null;
+        if (statusFilterOnly && userCountIndex.isReady()) {
+        return userCountIndex.count(request.getRole(), request.getBanned(), request.getEnabled());
         }
 
-/**
- * 构建分页响应
- */
-private PageResponse<UserDTO> buildPageResponse(List<UserDTO> userDTOs, Page<User> page, UserQueryRequest request) {
-        return new PageResponse<>(
-        userDTOs,
-        page.getTotalElements(),
-        request.getPage(),
-        request.getSize(),
-        page.getTotalPages()
-        );
+        String key = String.join("|", "users",
+        String.valueOf(request.getUsername()), String.valueOf(request.getEmail()),
+        String.valueOf(request.getOrganization()), String.valueOf(request.getRole()),
+        String.valueOf(request.getEmailVerified()), String.valueOf(request.getEnabled()),
+        String.valueOf(request.getBanned()));
+        return pageQueryService.cachedCount(key, () -> userRepository.count(spec));
         }
 
 /**
@@ -210,13 +278,38 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
         );
         }
 
+    /**
+     * 校验导出的过滤条件并构建查询条件（与用户列表相同，忽略分页参数）
+     * 需在写出响应头之前调用，参数不合法时抛出 IllegalArgumentException；索引确定没有匹配的用户时返回null
+     */
+    public Specification<User> buildExportSpecification(UserQueryRequest request) {
+        validateRequest(request);
+        return resolveSpecification(request);
+    }
+
+    /**
+     * 按 buildExportSpecification 构建的查询条件流式导出全部匹配的用户
+     */
+    public void exportUsers(Specification<User> spec, DataFormat format, OutputStream output) throws IOException {
+        userExportService.export(spec, format, output);
+    }
+
+    /**
+     * 获取用户的资源版本（只查询更新时间），用户不存在时返回null
+     */
+    public ResourceVersion getUserVersion(Long id) {
+        return userRepository.findUpdatedAtById(id)
+            .map(updatedAt -> ResourceVersion.of(updatedAt, "user", id))
+            .orElse(null);
+    }
+
     /**
      * 根据ID获取用户详情
      */
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
+        return userRepository.findDtoById(id)
             .orElseThrow(() -> new RuntimeException("用户不存在"));
-        return convertToDTO(user);
     }
 
     /**
@@ -227,6 +320,12 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("用户不存在"));
 
+        // 用户名、邮箱或账号状态变化时吊销已签发的Token
+        boolean revokeTokens = false;
+        String oldUsername = user.getUsername();
+        Boolean oldBanned = user.getBanned();
+        Boolean oldEnabled = user.getEnabled();
+
         // 更新字段
         if (request.getUsername() != null) {
             // 检查用户名是否已被使用
@@ -234,6 +333,7 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
                 userRepository.existsByUsername(request.getUsername())) {
                 throw new RuntimeException("用户名已存在");
             }
+            revokeTokens |= !user.getUsername().equals(request.getUsername());
             user.setUsername(request.getUsername());
         }
 
@@ -243,6 +343,7 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
                 userRepository.existsByEmail(request.getEmail())) {
                 throw new RuntimeException("邮箱已被注册");
             }
+            revokeTokens |= !user.getEmail().equals(request.getEmail());
             user.setEmail(request.getEmail());
         }
 
@@ -259,14 +360,24 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
         }
 
         if (request.getEnabled() != null) {
+            revokeTokens |= !request.getEnabled().equals(user.getEnabled());
             user.setEnabled(request.getEnabled());
         }
 
         if (request.getBanned() != null) {
+            revokeTokens |= !request.getBanned().equals(user.getBanned());
             user.setBanned(request.getBanned());
         }
 
+        if (revokeTokens) {
+            bumpTokenEpoch(user);
+        }
+
         user = userRepository.save(user);
+        userAvailabilityService.markTaken(user.getUsername(), user.getEmail());
+        userCountIndex.statusChanged(user.getRole(), oldBanned, oldEnabled, user.getBanned(), user.getEnabled());
+        userSearchIndex.indexed(user);
+        authRecordCache.invalidate(id, oldUsername, user.getUsername());
         return convertToDTO(user);
     }
 
@@ -277,8 +388,11 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
     public void banUser(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("用户不存在"));
+        userCountIndex.statusChanged(user.getRole(), user.getBanned(), user.getEnabled(), true, user.getEnabled());
         user.setBanned(true);
+        bumpTokenEpoch(user);
         userRepository.save(user);
+        authRecordCache.invalidate(id, user.getUsername());
     }
 
     /**
@@ -288,8 +402,11 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
     public void unbanUser(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("用户不存在"));
+        userCountIndex.statusChanged(user.getRole(), user.getBanned(), user.getEnabled(), false, user.getEnabled());
         user.setBanned(false);
+        bumpTokenEpoch(user);
         userRepository.save(user);
+        authRecordCache.invalidate(id, user.getUsername());
     }
 
     /**
@@ -297,19 +414,9 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
      */
     @Transactional
     public UserDTO createUser(UserUpdateRequest request, UserRole role) {
-        // 检查用户名是否已存在
-        if (request.getUsername() != null && userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("用户名已存在");
-        }
-
-        // 检查邮箱是否已存在
-        if (request.getEmail() != null && userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("邮箱已被注册");
-        }
-
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode("123456")); // 默认密码
+        user.setPassword(passwordHashService.encode("123456")); // 默认密码
         user.setEmail(request.getEmail());
         user.setRole(role);
         user.setPhone(request.getPhone());
@@ -319,27 +426,227 @@ private PageResponse<UserDTO> buildEmptyResponse(UserQueryRequest request) {
         user.setEnabled(true);
         user.setBanned(false);
 
-        user = userRepository.save(user);
+        // 用户名/邮箱是否重复由唯一约束判断
+        user = insertNewUser(user);
         return convertToDTO(user);
     }
 
+    /**
+     * 保存新用户
+     * 直接插入，由数据库唯一约束判断用户名/邮箱是否重复：只需一次往返，并发注册时同样正确
+     */
+    @Transactional
+    public User insertNewUser(User user) {
+        try {
+            User saved = userRepository.saveAndFlush(user);
+            userAvailabilityService.markTaken(saved.getUsername(), saved.getEmail());
+            userCountIndex.added(saved);
+            userSearchIndex.indexed(saved);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(resolveDuplicateMessage(e, user));
+        }
+    }
+
+    /**
+     * 根据违反的唯一约束给出提示（此时会话已不可用，不能再查询数据库）
+     */
+    private String resolveDuplicateMessage(DataIntegrityViolationException e, User user) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage());
+        String lowerDetail = detail.toLowerCase();
+        if (lowerDetail.contains(User.UK_USERNAME)) {
+            return "用户名已存在";
+        }
+        if (lowerDetail.contains(User.UK_EMAIL)) {
+            return "邮箱已被注册";
+        }
+
+        // 旧库中的约束名由Hibernate自动生成，按重复的值判断
+        if (user.getEmail() != null && detail.contains("'" + user.getEmail() + "'")) {
+            return "邮箱已被注册";
+        }
+        if (user.getUsername() != null && detail.contains("'" + user.getUsername() + "'")) {
+            return "用户名已存在";
+        }
+        log.warn("新增用户违反数据完整性约束: {}", detail);
+        return "用户名或邮箱已存在";
+    }
+
     /**
      * 删除用户
      */
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("用户不存在");
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("用户不存在"));
+        // refresh_tokens.user_id 外键引用用户，需先删除该用户的刷新令牌
+        refreshTokenRepository.deleteByUserIds(List.of(id));
+        userRepository.delete(user);
+        tokenRevocationRegistry.markDeleted(id);
+        userCountIndex.removed(user);
+        userSearchIndex.removed(id);
+        authRecordCache.invalidate(id, user.getUsername());
+    }
+
+    /**
+     * 批量封禁用户
+     */
+    public UserBulkResult banUsers(UserBulkRequest request) {
+        return runBulk(request, BulkAction.BAN);
+    }
+
+    /**
+     * 批量解封用户
+     */
+    public UserBulkResult unbanUsers(UserBulkRequest request) {
+        return runBulk(request, BulkAction.UNBAN);
+    }
+
+    /**
+     * 批量删除用户（仍有关联任务或提交记录的用户跳过）
+     */
+    public UserBulkResult deleteUsers(UserBulkRequest request) {
+        return runBulk(request, BulkAction.DELETE);
+    }
+
+    /**
+     * 按ID列表或过滤条件分块执行批量操作，每块一个事务、一条UPDATE/DELETE
+     */
+    private UserBulkResult runBulk(UserBulkRequest request, BulkAction action) {
+        UserBulkResult result = new UserBulkResult();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = request.getIds().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+                applyBulkChunk(ids.subList(from, Math.min(from + bulkChunkSize, ids.size())), action, result);
+            }
+            return result;
+        }
+
+        UserQueryRequest filter = request.getFilter();
+        if (!hasFilter(filter)) {
+            throw new IllegalArgumentException("批量操作必须指定ID列表或过滤条件");
+        }
+        validateRequest(filter);
+        Specification<User> spec = resolveSpecification(filter);
+        if (spec == null) {
+            return result;
+        }
+
+        // 按ID顺序分块定位，已处理的用户不会被重复读取
+        long lastId = 0;
+        while (true) {
+            long after = lastId;
+            List<Long> chunk = pageQueryService.findIds(User.class,
+                    spec.and((root, query, cb) -> cb.greaterThan(root.get("id"), after)),
+                    Sort.by(Sort.Direction.ASC, "id"), bulkChunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            applyBulkChunk(chunk, action, result);
+            if (chunk.size() < bulkChunkSize) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1);
         }
-        userRepository.deleteById(id);
+        return result;
+    }
+
+    /**
+     * 在一个事务中处理一块用户：锁定并读取当前状态，执行一条UPDATE/DELETE，提交后同步Token吊销和计数
+     */
+    private void applyBulkChunk(List<Long> ids, BulkAction action, UserBulkResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> rows = userRepository.lockStatusByIds(ids);
+            result.setMatched(result.getMatched() + rows.size());
+
+            Set<Long> referenced = new HashSet<>();
+            if (action == BulkAction.DELETE && !rows.isEmpty()) {
+                userRepository.findReferencedIds(ids).forEach(id -> referenced.add(id.longValue()));
+            }
+
+            List<Object[]> targets = new ArrayList<>();
+            for (Object[] row : rows) {
+                boolean banned = toBoolean(row[2]);
+                boolean selected = switch (action) {
+                    case BAN -> !banned;
+                    case UNBAN -> banned;
+                    case DELETE -> !referenced.contains(((Number) row[0]).longValue());
+                };
+                if (selected) {
+                    targets.add(row);
+                }
+            }
+            if (targets.isEmpty()) {
+                return;
+            }
+
+            List<Long> targetIds = targets.stream().map(row -> ((Number) row[0]).longValue())
+                    .collect(Collectors.toList());
+            if (action == BulkAction.DELETE) {
+                refreshTokenRepository.deleteByUserIds(targetIds);
+                userRepository.deleteByIds(targetIds);
+            } else {
+                userRepository.updateBannedByIds(targetIds, action == BulkAction.BAN, LocalDateTime.now());
+            }
+            result.setAffected(result.getAffected() + targets.size());
+
+            for (Object[] row : targets) {
+                Long id = ((Number) row[0]).longValue();
+                UserRole role = UserRole.valueOf((String) row[1]);
+                boolean banned = toBoolean(row[2]);
+                boolean enabled = toBoolean(row[3]);
+                authRecordCache.invalidate(id, (String) row[5]);
+                if (action == BulkAction.DELETE) {
+                    tokenRevocationRegistry.markDeleted(id);
+                    userCountIndex.removed(role, banned, enabled);
+                    userSearchIndex.removed(id);
+                } else {
+                    tokenRevocationRegistry.updateEpoch(id, ((Number) row[4]).intValue() + 1);
+                    userCountIndex.statusChanged(role, banned, enabled, action == BulkAction.BAN, enabled);
+                }
+            }
+        });
+    }
+
+    private boolean hasFilter(UserQueryRequest filter) {
+        return filter != null && (StringUtils.hasText(filter.getUsername())
+                || StringUtils.hasText(filter.getEmail())
+                || StringUtils.hasText(filter.getOrganization())
+                || filter.getRole() != null
+                || filter.getEmailVerified() != null
+                || filter.getEnabled() != null
+                || filter.getBanned() != null);
+    }
+
+    /**
+     * 原生查询中 BIT(1) 列可能返回 Boolean 或数字
+     */
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value instanceof Number && ((Number) value).intValue() != 0;
+    }
+
+    /**
+     * 递增Token版本号，使该用户已签发的Token失效
+     */
+    private void bumpTokenEpoch(User user) {
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        tokenRevocationRegistry.updateEpoch(user.getId(), user.getTokenEpoch());
     }
 
     /**
      * 转换为DTO
      */
     private UserDTO convertToDTO(User user) {
-        UserDTO dto = new UserDTO();
-        BeanUtils.copyProperties(user, dto);
-        return dto;
+        return UserMapper.toDTO(user);
+    }
+
+    /**
+     * 批量操作类型
+     */
+    private enum BulkAction {
+        BAN, UNBAN, DELETE
     }
 }
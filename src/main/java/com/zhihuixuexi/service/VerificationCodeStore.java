@@ -0,0 +1,49 @@
+package com.zhihuixuexi.service;
+
+/**
+ * 邮箱验证码存储
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * 保存验证码（覆盖该邮箱之前的验证码）
+     *
+     * @return 距上次发送未超过重发间隔时返回false，不写入
+     */
+    boolean save(String email, String code);
+
+    /**
+     * 校验验证码（不消费，调用方在业务成功后调用 remove）
+     */
+    VerifyResult verify(String email, String code);
+
+    /**
+     * 删除验证码
+     */
+    void remove(String email);
+
+    /**
+     * 验证码校验结果
+     */
+    enum VerifyResult {
+        /**
+         * 校验通过
+         */
+        OK,
+
+        /**
+         * 未获取验证码
+         */
+        NOT_FOUND,
+
+        /**
+         * 验证码错误
+         */
+        MISMATCH,
+
+        /**
+         * 验证码已过期
+         */
+        EXPIRED
+    }
+}
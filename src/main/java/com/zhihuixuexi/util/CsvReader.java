@@ -0,0 +1,125 @@
+package com.zhihuixuexi.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式CSV读取器（RFC 4180）：逐条读取记录，支持双引号包裹的字段、转义引号以及字段内换行
+ * 不一次性读入整个文件，内存占用与单条记录大小相关
+ */
+public class CsvReader {
+
+    private final Reader reader;
+
+    private int pushback = -1;
+
+    /**
+     * 当前记录起始的物理行号（从1开始）
+     */
+    private long lineNumber;
+
+    private long nextLineNumber = 1;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 读取下一条记录，到达末尾时返回null；空行被跳过
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\r' || c == '\n') {
+                consumeLineBreak(c);
+                continue;
+            }
+            unread(c);
+            lineNumber = nextLineNumber;
+            return parseRecord();
+        }
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private List<String> parseRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("第" + lineNumber + "行起的引号未闭合");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    if (c == '\n' || c == '\r' && peek() != '\n') {
+                        nextLineNumber++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            if (c == -1 || c == '\r' || c == '\n') {
+                fields.add(field.toString());
+                if (c != -1) {
+                    consumeLineBreak(c);
+                }
+                return fields;
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private void consumeLineBreak(int c) throws IOException {
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                unread(next);
+            }
+        }
+        nextLineNumber++;
+    }
+
+    private int peek() throws IOException {
+        int c = read();
+        unread(c);
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (pushback != -1) {
+            int c = pushback;
+            pushback = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+}
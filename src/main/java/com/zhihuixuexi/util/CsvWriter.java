@@ -0,0 +1,57 @@
+package com.zhihuixuexi.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV写入工具（RFC 4180）：包含逗号、引号或换行的字段用双引号包裹
+ * 以 = + - @ 或制表符、回车开头的文本字段前加单引号，防止在电子表格中被当作公式执行
+ */
+public final class CsvWriter {
+
+    private CsvWriter() {
+    }
+
+    /**
+     * 写入一条记录（含行尾换行），null写为空字段
+     */
+    public static void writeRecord(Writer writer, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] instanceof CharSequence) {
+                writeField(writer, neutralizeFormula(fields[i].toString()));
+            } else if (fields[i] != null) {
+                writeField(writer, fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 文本字段（用户输入）可能以公式起始字符开头，数字等非文本字段不做处理
+     */
+    private static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
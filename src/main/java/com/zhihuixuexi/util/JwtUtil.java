@@ -1,38 +1,81 @@
 package com.zhihuixuexi.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT工具类
  */
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    /**
+     * 签名密钥与解析器只在启动时构建一次（JwtParser 线程安全）
+     */
+    private Key key;
+
+    private JwtParser parser;
+
+    /**
+     * 已验证Token的Claims缓存，键为Token的SHA-256摘要，条目在Token过期时失效
+     */
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+    }
+
     /**
      * 生成JWT Token
      */
-    public String generateToken(String username, Long userId, String role) {
+    public String generateToken(String username, Long userId, String role, Integer tokenEpoch) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-
         return Jwts.builder()
                 .setSubject(username)
                 .claim("userId", userId)
                 .claim("role", role)
+                .claim("epoch", tokenEpoch)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
@@ -76,14 +119,67 @@ public class JwtUtil {
     }
 
     /**
-     * 从Token中解析Claims
+     * 从Token中解析Claims（命中缓存时跳过签名校验和JSON解码）
+     * 返回的Claims为缓存中的共享实例，调用方不得修改
      */
-    private Claims getClaimsFromToken(String token) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims getClaimsFromToken(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token不能为空");
+        }
+
+        String digest = digest(token);
+        Claims cached = claimsCache.getIfPresent(digest);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        // 解析失败（签名错误、已过期等）直接抛出，不写入缓存
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        claimsCache.put(digest, claims);
+        return claims;
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.getTime() <= System.currentTimeMillis();
+    }
+
+    /**
+     * 计算Token摘要作为缓存键，避免在内存中保存完整Token
+     */
+    private String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 按Token自身的过期时间设置缓存条目的存活时间
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMillis = exp.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,136 @@
+package com.zhihuixuexi.util;
+
+import jakarta.persistence.criteria.Path;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标（keyset）分页：按 (时间字段 DESC, id DESC) 定位，不使用OFFSET也不统计总数，
+ * 任意一页的查询代价与第一页相同
+ */
+public final class KeysetPager {
+
+    private KeysetPager() {
+    }
+
+    /**
+     * 查询一页
+     *
+     * @param executor  支持Specification的Repository
+     * @param spec      过滤条件
+     * @param timeField 排序时间字段（如 createdAt、submittedAt）
+     * @param timeOf    读取实体的时间字段
+     * @param idOf      读取实体的ID
+     * @param cursor    上一次返回的游标，空字符串表示第一页
+     * @param size      每页条数
+     */
+    public static <T> Result<T> fetch(JpaSpecificationExecutor<T> executor,
+                                      Specification<T> spec,
+                                      String timeField,
+                                      Function<T, LocalDateTime> timeOf,
+                                      Function<T, Long> idOf,
+                                      String cursor,
+                                      int size) {
+        return fetch((where, sort, limit) -> executor.findBy(where, query -> query.sortBy(sort).limit(limit).all()),
+                spec, timeField, timeOf, idOf, cursor, size);
+    }
+
+    /**
+     * 查询一页，行由 fetcher 读取（可返回投影而非实体）
+     */
+    public static <T, R> Result<R> fetch(RowFetcher<T, R> fetcher,
+                                         Specification<T> spec,
+                                         String timeField,
+                                         Function<R, LocalDateTime> timeOf,
+                                         Function<R, Long> idOf,
+                                         String cursor,
+                                         int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        boolean backward = position != null && position.isBackward();
+
+        Specification<T> where = Specification.where(spec);
+        if (position != null) {
+            where = where.and(seek(timeField, position));
+        }
+
+        // 向前翻页时按升序取紧邻的记录，再反转回降序
+        Sort.Direction direction = backward ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, timeField).and(Sort.by(direction, "id"));
+        List<R> rows = fetcher.fetch(where, sort, size + 1);
+
+        // 多取一条用于判断是否还有下一页
+        boolean hasMore = rows.size() > size;
+        List<R> items = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(items);
+        }
+
+        if (items.isEmpty()) {
+            String next = backward ? new PageCursor(position.getTime(), position.getId(), false).encode() : null;
+            String prev = position != null && !backward
+                    ? new PageCursor(position.getTime(), position.getId(), true).encode() : null;
+            return new Result<>(items, next, prev);
+        }
+
+        R first = items.get(0);
+        R last = items.get(items.size() - 1);
+        String next = (backward || hasMore) ? new PageCursor(timeOf.apply(last), idOf.apply(last), false).encode() : null;
+        String prev = (backward ? hasMore : position != null)
+                ? new PageCursor(timeOf.apply(first), idOf.apply(first), true).encode() : null;
+        return new Result<>(items, next, prev);
+    }
+
+    /**
+     * 定位条件：(time, id) 严格小于（向后）或大于（向前）游标位置
+     */
+    private static <T> Specification<T> seek(String timeField, PageCursor position) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> time = root.get(timeField);
+            Path<Long> id = root.get("id");
+            if (position.isBackward()) {
+                return cb.or(
+                        cb.greaterThan(time, position.getTime()),
+                        cb.and(cb.equal(time, position.getTime()), cb.greaterThan(id, position.getId())));
+            }
+            return cb.or(
+                    cb.lessThan(time, position.getTime()),
+                    cb.and(cb.equal(time, position.getTime()), cb.lessThan(id, position.getId())));
+        };
+    }
+
+    /**
+     * 按条件、排序读取至多 limit 行
+     */
+    @FunctionalInterface
+    public interface RowFetcher<T, R> {
+
+        List<R> fetch(Specification<T> where, Sort sort, int limit);
+    }
+
+    /**
+     * 一页查询结果
+     */
+    @Value
+    public static class Result<T> {
+
+        List<T> items;
+
+        /**
+         * 下一页（更早的记录）游标，没有更多时为null
+         */
+        String nextCursor;
+
+        /**
+         * 上一页（更新的记录）游标，已是第一页时为null
+         */
+        String prevCursor;
+    }
+}
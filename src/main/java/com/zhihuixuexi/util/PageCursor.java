@@ -0,0 +1,56 @@
+package com.zhihuixuexi.util;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 分页游标：记录一行的 (时间, id) 位置以及翻页方向，对外编码为不透明字符串
+ */
+@Value
+public class PageCursor {
+
+    /**
+     * 定位行的时间字段值
+     */
+    LocalDateTime time;
+
+    /**
+     * 定位行的ID
+     */
+    Long id;
+
+    /**
+     * true-向前翻页（取更新的记录），false-向后翻页（取更早的记录）
+     */
+    boolean backward;
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = (backward ? "B" : "F") + "|" + time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空字符串表示第一页（返回null）
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !("B".equals(parts[0]) || "F".equals(parts[0]))) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new PageCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]), "B".equals(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
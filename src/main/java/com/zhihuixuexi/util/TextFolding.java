@@ -0,0 +1,30 @@
+package com.zhihuixuexi.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 文本折叠：与数据库 *_ai_ci 排序规则一样忽略大小写、重音和全角/半角差异
+ * 用于内存索引和缓存的键，使其与数据库的等值/LIKE 比较结果一致
+ */
+public final class TextFolding {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextFolding() {
+    }
+
+    /**
+     * 兼容分解（全角转半角、分离重音符号）后去掉重音符号，再重新组合（韩文音节等不被拆开匹配）并转小写，
+     * 例如 "José"、"ＪＯＳＥ" 都折叠为 "jose"
+     */
+    public static String fold(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        return Normalizer.normalize(COMBINING_MARKS.matcher(decomposed).replaceAll(""), Normalizer.Form.NFC)
+                .toLowerCase(Locale.ROOT);
+    }
+}
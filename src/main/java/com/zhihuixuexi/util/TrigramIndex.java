@@ -0,0 +1,187 @@
+package com.zhihuixuexi.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 三元组（trigram）倒排索引，用于子串匹配
+ * 每个三字符片段对应一个按ID升序排列的 long[] 倒排表，查询时对各片段的倒排表求交集，再用原值确认子串包含关系
+ * 值与查询词按数据库排序规则的方式折叠（见 TextFolding）
+ * 非线程安全，由调用方加锁
+ */
+public class TrigramIndex {
+
+    /**
+     * 片段长度，短于该长度的查询词无法使用索引
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    /**
+     * 已索引的折叠值，用于更新时移除旧片段以及确认查询结果
+     */
+    private final Map<Long, String> values = new HashMap<>();
+
+    /**
+     * 写入或替换ID对应的值，value为null时等同于移除
+     */
+    public void put(long id, String value) {
+        String normalized = normalize(value);
+        String previous = values.get(id);
+        if (normalized != null && normalized.equals(previous)) {
+            return;
+        }
+        remove(id);
+        if (normalized == null) {
+            return;
+        }
+        values.put(id, normalized);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            postings.computeIfAbsent(gram(normalized, i), k -> new PostingList()).add(id);
+        }
+    }
+
+    /**
+     * 移除ID对应的值
+     */
+    public void remove(long id) {
+        String previous = values.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= previous.length(); i++) {
+            long key = gram(previous, i);
+            PostingList list = postings.get(key);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 查找值中包含 term 的ID（升序）；term 短于片段长度时返回null，表示无法通过索引回答
+     */
+    public long[] search(String term) {
+        String normalized = normalize(term);
+        if (normalized == null || normalized.length() < GRAM_LENGTH) {
+            return null;
+        }
+
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            PostingList list = postings.get(gram(normalized, i));
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        // 从最短的倒排表开始求交集
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        PostingList smallest = lists.get(0);
+        long[] result = new long[smallest.size];
+        int count = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            if (containsInAll(lists, id) && values.get(id).contains(normalized)) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * ID对应的值是否包含 term（term 为空时视为匹配）
+     */
+    public boolean matches(long id, String term) {
+        String normalized = normalize(term);
+        if (normalized == null) {
+            return true;
+        }
+        String value = values.get(id);
+        return value != null && value.contains(normalized);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    private boolean containsInAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String folded = TextFolding.fold(value).trim();
+        return folded.isEmpty() ? null : folded;
+    }
+
+    /**
+     * 将三个字符打包为一个long作为片段键
+     */
+    private static long gram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+    }
+
+    /**
+     * 有序的 long 倒排表
+     */
+    private static class PostingList {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        void add(long id) {
+            // 新用户ID递增，绝大多数情况下直接追加
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+        }
+    }
+}
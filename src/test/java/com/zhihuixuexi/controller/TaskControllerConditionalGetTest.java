@@ -0,0 +1,96 @@
+package com.zhihuixuexi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zhihuixuexi.dto.ApiResponse;
+import com.zhihuixuexi.dto.SerializedResponse;
+import com.zhihuixuexi.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 任务接口的条件GET：ETag 取自实际写出的响应体，缓存内容更新后旧ETag不再命中304
+ */
+class TaskControllerConditionalGetTest {
+
+    private static final long COURSE_ID = 1L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskService taskService;
+
+    private TaskController controller;
+
+    @BeforeEach
+    void setUp() {
+        taskService = mock(TaskService.class);
+        controller = new TaskController(taskService);
+    }
+
+    @Test
+    void etagFollowsServedBody() {
+        SerializedResponse oldBody = SerializedResponse.of(objectMapper, ApiResponse.success(List.of("旧课程名")));
+        when(taskService.getCourseTasksResponse(COURSE_ID)).thenReturn(oldBody);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ResponseEntity<byte[]> firstEntity = controller.getCourseTasks(COURSE_ID, request(null, first));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).contains(oldBody.getEtag());
+        assertThat(body(firstEntity)).contains("旧课程名");
+
+        // 缓存未刷新：同一内容，304
+        MockHttpServletResponse cached = new MockHttpServletResponse();
+        assertThat(controller.getCourseTasks(COURSE_ID, request(etag, cached))).isNull();
+        assertThat(cached.getStatus()).isEqualTo(304);
+
+        // 缓存刷新后：旧ETag不再匹配，返回新内容及新ETag
+        SerializedResponse newBody = SerializedResponse.of(objectMapper, ApiResponse.success(List.of("新课程名")));
+        when(taskService.getCourseTasksResponse(COURSE_ID)).thenReturn(newBody);
+        MockHttpServletResponse refreshed = new MockHttpServletResponse();
+        ResponseEntity<byte[]> refreshedEntity = controller.getCourseTasks(COURSE_ID, request(etag, refreshed));
+        assertThat(refreshed.getStatus()).isEqualTo(200);
+        assertThat(body(refreshedEntity)).contains("新课程名");
+        assertThat(refreshed.getHeader(HttpHeaders.ETAG)).contains(newBody.getEtag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void gzipUsesSeparateEtag() {
+        SerializedResponse body = SerializedResponse.of(objectMapper, ApiResponse.success(List.of("课程")));
+        when(taskService.getCourseTasksResponse(COURSE_ID)).thenReturn(body);
+
+        MockHttpServletResponse plain = new MockHttpServletResponse();
+        controller.getCourseTasks(COURSE_ID, request(null, plain));
+
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest("GET", "/tasks/course/" + COURSE_ID);
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        gzipRequest.addHeader(HttpHeaders.IF_NONE_MATCH, plain.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse gzip = new MockHttpServletResponse();
+        ResponseEntity<byte[]> entity = controller.getCourseTasks(COURSE_ID, new ServletWebRequest(gzipRequest, gzip));
+
+        assertThat(entity).isNotNull();
+        assertThat(gzip.getHeader(HttpHeaders.ETAG)).contains(body.getEtag() + "-gzip");
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks/course/" + COURSE_ID);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    private static String body(ResponseEntity<byte[]> entity) {
+        return new String(entity.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,166 @@
+package com.zhihuixuexi.mapper;
+
+import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.dto.TaskSubmissionDTO;
+import com.zhihuixuexi.dto.UserDTO;
+import com.zhihuixuexi.entity.Chapter;
+import com.zhihuixuexi.entity.Course;
+import com.zhihuixuexi.entity.Task;
+import com.zhihuixuexi.entity.TaskSubmission;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO映射性能对比（JMH）：显式映射器与原先的 BeanUtils.copyProperties 反射复制
+ * 运行方式：mvn test-compile 后执行 main 方法，结果包含吞吐量和每次调用的分配字节数（gc.alloc.rate.norm）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private User user;
+
+    private Task task;
+
+    private TaskSubmission submission;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setPassword("$2a$10$hash");
+        user.setEmail("benchmark@example.com");
+        user.setRole(UserRole.INSTITUTION);
+        user.setPhone("13800000000");
+        user.setOrganization("基准测试学校");
+        user.setAddress("地址");
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+
+        Course course = new Course();
+        course.setId(2L);
+        course.setTitle("课程");
+        course.setCreator(user);
+
+        Chapter chapter = new Chapter();
+        chapter.setId(3L);
+        chapter.setTitle("章节");
+        chapter.setCourse(course);
+
+        task = new Task();
+        task.setId(4L);
+        task.setTitle("任务");
+        task.setDescription("描述");
+        task.setContent("内容");
+        task.setCourse(course);
+        task.setChapter(chapter);
+        task.setCreator(user);
+        task.setDeadline(now.plusDays(7));
+        task.setPublished(true);
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+
+        submission = new TaskSubmission();
+        submission.setId(5L);
+        submission.setTask(task);
+        submission.setUser(user);
+        submission.setContent("答案");
+        submission.setAttachmentUrls("[]");
+        submission.setScore(90);
+        submission.setFeedback("很好");
+        submission.setStatus("GRADED");
+        submission.setSubmittedAt(now);
+        submission.setGradedAt(now);
+        submission.setCreatedAt(now);
+    }
+
+    @Benchmark
+    public UserDTO userMapper() {
+        return UserMapper.toDTO(user);
+    }
+
+    /**
+     * 优化前的 UserService.convertToDTO
+     */
+    @Benchmark
+    public UserDTO userBeanUtils() {
+        UserDTO dto = new UserDTO();
+        BeanUtils.copyProperties(user, dto);
+        return dto;
+    }
+
+    @Benchmark
+    public TaskDTO taskMapper() {
+        return TaskMapper.toDTO(task);
+    }
+
+    /**
+     * 优化前的 TaskService.convertToDTO
+     */
+    @Benchmark
+    public TaskDTO taskBeanUtils() {
+        TaskDTO dto = new TaskDTO();
+        BeanUtils.copyProperties(task, dto);
+        dto.setCourseId(task.getCourse().getId());
+        dto.setCourseTitle(task.getCourse().getTitle());
+        dto.setCreatorId(task.getCreator().getId());
+        dto.setCreatorName(task.getCreator().getUsername());
+        if (task.getChapter() != null) {
+            dto.setChapterId(task.getChapter().getId());
+            dto.setChapterTitle(task.getChapter().getTitle());
+        }
+        return dto;
+    }
+
+    @Benchmark
+    public TaskSubmissionDTO submissionMapper() {
+        return TaskSubmissionMapper.toDTO(submission);
+    }
+
+    /**
+     * 优化前的 TaskSubmissionService.convertToDTO
+     */
+    @Benchmark
+    public TaskSubmissionDTO submissionBeanUtils() {
+        TaskSubmissionDTO dto = new TaskSubmissionDTO();
+        BeanUtils.copyProperties(submission, dto);
+        dto.setTaskId(submission.getTask().getId());
+        dto.setTaskTitle(submission.getTask().getTitle());
+        dto.setUserId(submission.getUser().getId());
+        dto.setUsername(submission.getUser().getUsername());
+        return dto;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,300 @@
+package com.zhihuixuexi.repository;
+
+import com.zhihuixuexi.dto.PageResponse;
+import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.dto.TaskQueryRequest;
+import com.zhihuixuexi.dto.TaskSubmissionDTO;
+import com.zhihuixuexi.entity.Chapter;
+import com.zhihuixuexi.entity.Course;
+import com.zhihuixuexi.entity.Task;
+import com.zhihuixuexi.entity.TaskSubmission;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.TotalMode;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.service.TaskService;
+import com.zhihuixuexi.service.TaskSubmissionService;
+import com.zhihuixuexi.support.AbstractMySqlTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 热点查询的执行计划审计
+ * 在MySQL通用查询日志打开时执行任务列表（各过滤组合）、任务详情、提交列表等热点调用及任务/提交Repository的查询方法，
+ * 对日志中访问 tasks/task_submissions 的每条SELECT执行 EXPLAIN，出现全表扫描（type=ALL）或 Using filesort 即失败
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanAuditTest extends AbstractMySqlTest {
+
+    private static final int INSTITUTIONS = 4;
+    private static final int STUDENTS = 200;
+    private static final int COURSES_PER_INSTITUTION = 2;
+    private static final int TASKS_PER_COURSE = 150;
+    private static final int SUBMITTED_TASKS_PER_COURSE = 10;
+    private static final int SUBMISSIONS_PER_TASK = 30;
+
+    private static final Pattern HOT_TABLES = Pattern.compile("\\b(tasks|task_submissions)\\b");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSubmissionService taskSubmissionService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSubmissionRepository taskSubmissionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<User> institutions = new ArrayList<>();
+    private final List<User> students = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+    private final List<Chapter> chapters = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+
+    /**
+     * 写入足够的数据并更新统计信息，使优化器按真实规模选择执行计划
+     */
+    @BeforeAll
+    void seed() throws SQLException {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < INSTITUTIONS; i++) {
+                institutions.add(persistUser("inst" + i + "_" + suffix, UserRole.INSTITUTION));
+            }
+            for (int i = 0; i < STUDENTS; i++) {
+                students.add(persistUser("stu" + i + "_" + suffix, UserRole.STUDENT));
+            }
+            for (User institution : institutions) {
+                for (int c = 0; c < COURSES_PER_INSTITUTION; c++) {
+                    Course course = new Course();
+                    course.setTitle("课程" + c);
+                    course.setCreator(institution);
+                    entityManager.persist(course);
+                    courses.add(course);
+
+                    Chapter chapter = new Chapter();
+                    chapter.setTitle("章节" + c);
+                    chapter.setCourse(course);
+                    entityManager.persist(chapter);
+                    chapters.add(chapter);
+
+                    for (int t = 0; t < TASKS_PER_COURSE; t++) {
+                        Task task = new Task();
+                        task.setTitle("任务" + t);
+                        task.setContent("内容" + t);
+                        task.setCourse(course);
+                        task.setChapter(t % 3 == 0 ? null : chapter);
+                        task.setCreator(institution);
+                        task.setPublished(t % 2 == 0);
+                        task.setDeadline(LocalDateTime.now().plusDays(t % 30));
+                        entityManager.persist(task);
+                        tasks.add(task);
+
+                        if (t < SUBMITTED_TASKS_PER_COURSE) {
+                            for (int s = 0; s < SUBMISSIONS_PER_TASK; s++) {
+                                TaskSubmission submission = new TaskSubmission();
+                                submission.setTask(task);
+                                submission.setUser(students.get((t * SUBMISSIONS_PER_TASK + s) % STUDENTS));
+                                submission.setContent("答案");
+                                submission.setSubmittedAt(LocalDateTime.now().minusMinutes(s));
+                                entityManager.persist(submission);
+                            }
+                        }
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+
+        try (Connection connection = rootConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE users, tasks, task_submissions");
+        }
+    }
+
+    @Test
+    void hotQueriesUseIndexes() throws SQLException {
+        Set<String> statements = captureStatements(this::runHotQueries);
+        assertThat(statements).as("未捕获到热点查询").isNotEmpty();
+
+        List<String> violations = new ArrayList<>();
+        try (Connection connection = rootConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                try (ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (plan.next()) {
+                        String type = plan.getString("type");
+                        String extra = plan.getString("Extra");
+                        if ("ALL".equals(type) || (extra != null && extra.contains("Using filesort"))) {
+                            violations.add("table=" + plan.getString("table") + " type=" + type
+                                    + " key=" + plan.getString("key") + " extra=" + extra + "\n  " + sql);
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(violations).as("全表扫描或filesort的查询").isEmpty();
+    }
+
+    /**
+     * 热点调用：机构任务列表（各过滤组合、精确分页和游标分页）、任务详情、课程任务列表、提交列表，
+     * 以及任务/提交Repository的派生查询和自定义查询
+     */
+    private void runHotQueries() {
+        User institution = institutions.get(0);
+        Course course = courses.get(0);
+        Chapter chapter = chapters.get(0);
+        Task task = tasks.get(0);
+        User student = students.get(0);
+        LocalDateTime from = LocalDateTime.now().plusDays(5);
+        LocalDateTime to = LocalDateTime.now().plusDays(15);
+
+        taskService.getMyTasks(institution.getId(), query(null, null));
+        taskService.getMyTasks(institution.getId(), query(course.getId(), null));
+        taskService.getMyTasks(institution.getId(), query(null, true));
+        taskService.getMyTasks(institution.getId(), query(course.getId(), true));
+
+        TaskQueryRequest chapterQuery = query(course.getId(), null);
+        chapterQuery.setChapterId(chapter.getId());
+        taskService.getMyTasks(institution.getId(), chapterQuery);
+        TaskQueryRequest chapterOnlyQuery = query(null, true);
+        chapterOnlyQuery.setChapterId(chapter.getId());
+        taskService.getMyTasks(institution.getId(), chapterOnlyQuery);
+
+        TaskQueryRequest deadlineQuery = query(null, null);
+        deadlineQuery.setDeadlineFrom(from);
+        deadlineQuery.setDeadlineTo(to);
+        taskService.getMyTasks(institution.getId(), deadlineQuery);
+        TaskQueryRequest deadlineFromQuery = query(course.getId(), true);
+        deadlineFromQuery.setDeadlineFrom(from);
+        taskService.getMyTasks(institution.getId(), deadlineFromQuery);
+
+        TaskQueryRequest titleQuery = query(null, null);
+        titleQuery.setTitle("任务1");
+        taskService.getMyTasks(institution.getId(), titleQuery);
+
+        TaskQueryRequest combinedQuery = query(course.getId(), true);
+        combinedQuery.setChapterId(chapter.getId());
+        combinedQuery.setDeadlineTo(to);
+        combinedQuery.setTitle("任务");
+        taskService.getMyTasks(institution.getId(), combinedQuery);
+        combinedQuery.setCursor("");
+        taskService.getMyTasks(institution.getId(), combinedQuery);
+
+        TaskQueryRequest cursorQuery = query(null, null);
+        cursorQuery.setCursor("");
+        PageResponse<TaskDTO> firstPage = taskService.getMyTasks(institution.getId(), cursorQuery);
+        cursorQuery.setCursor(firstPage.getNextCursor());
+        taskService.getMyTasks(institution.getId(), cursorQuery);
+
+        taskService.getTaskResponse(task.getId());
+        taskService.getCourseTasksResponse(course.getId());
+
+        taskSubmissionService.getTaskSubmissions(task.getId(), institution.getId(), 1, 10);
+        PageResponse<TaskSubmissionDTO> submissions = taskSubmissionService.getTaskSubmissions(
+                task.getId(), institution.getId(), 1, 10, "", TotalMode.NONE);
+        taskSubmissionService.getTaskSubmissions(
+                task.getId(), institution.getId(), 1, 10, submissions.getNextCursor(), TotalMode.NONE);
+        taskSubmissionService.getUserSubmissions(student.getId(), 1, 10);
+        taskSubmissionService.getUserSubmissions(student.getId(), 1, 10, "", TotalMode.NONE);
+
+        taskRepository.findDtoById(task.getId());
+        taskRepository.findPublishedDtosByCourseId(course.getId());
+        taskRepository.findByCourseId(course.getId(), PageRequest.of(0, 10));
+        taskRepository.findByCourseIdAndChapterId(course.getId(), chapter.getId());
+        taskRepository.countByCreatorId(institution.getId());
+
+        taskSubmissionRepository.findByTaskId(task.getId(), PageRequest.of(0, 10));
+        taskSubmissionRepository.findByUserId(student.getId(), PageRequest.of(0, 10));
+        taskSubmissionRepository.findByTaskIdAndUserId(task.getId(), student.getId());
+        taskSubmissionRepository.existsByTaskIdAndUserId(task.getId(), student.getId());
+        taskSubmissionRepository.findByTaskIdAndStatus(task.getId(), "SUBMITTED");
+        taskSubmissionRepository.countPendingGradingByCreatorId(institution.getId());
+    }
+
+    /**
+     * 打开通用查询日志执行调用，返回期间访问热点表的SELECT
+     * 连接参数 useCursorFetch=true 会启用服务端预处理，这类语句以 Execute 记录且参数值已展开；
+     * 普通语句以 Query 记录，两类都收集
+     */
+    private Set<String> captureStatements(Runnable calls) throws SQLException {
+        try (Connection connection = rootConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET GLOBAL log_output = 'TABLE'");
+            statement.execute("TRUNCATE TABLE mysql.general_log");
+            statement.execute("SET GLOBAL general_log = 'ON'");
+            try {
+                calls.run();
+            } finally {
+                statement.execute("SET GLOBAL general_log = 'OFF'");
+            }
+
+            Set<String> statements = new LinkedHashSet<>();
+            try (ResultSet rs = statement.executeQuery("SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                    + "WHERE command_type IN ('Query', 'Execute') ORDER BY event_time")) {
+                while (rs.next()) {
+                    String sql = rs.getString(1).trim();
+                    if (sql.toLowerCase(Locale.ROOT).startsWith("select") && HOT_TABLES.matcher(sql).find()) {
+                        statements.add(sql);
+                    }
+                }
+            }
+            return statements;
+        }
+    }
+
+    private TaskQueryRequest query(Long courseId, Boolean published) {
+        TaskQueryRequest request = new TaskQueryRequest();
+        request.setCourseId(courseId);
+        request.setPublished(published);
+        request.setPage(1);
+        request.setSize(10);
+        request.setTotal(TotalMode.EXACT);
+        return request;
+    }
+
+    private User persistUser(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    /**
+     * 通用查询日志和 EXPLAIN 使用root连接（应用账号没有 SET GLOBAL 权限）
+     */
+    private static Connection rootConnection() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), "root", MYSQL.getPassword());
+    }
+}
@@ -0,0 +1,66 @@
+package com.zhihuixuexi.security;
+
+import com.zhihuixuexi.dto.UserCredentials;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 认证记录缓存：用户名的大小写、重音变体共用同一缓存项，按存储的用户名失效时一并移除
+ */
+class AuthRecordCacheTest {
+
+    private UserRepository userRepository;
+
+    private AuthRecordCache cache;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new AuthRecordCache(userRepository, new SimpleMeterRegistry(), 100, 600_000);
+
+        alice = new User();
+        alice.setId(1L);
+        alice.setUsername("alice");
+        alice.setPassword("hash");
+        alice.setEmail("alice@example.com");
+        alice.setRole(UserRole.STUDENT);
+        // 数据库按 *_ai_ci 比较，任何大小写/重音变体都查到同一用户
+        when(userRepository.findCredentialsByUsername(anyString()))
+                .thenAnswer(invocation -> Optional.of(UserCredentials.of(alice)));
+    }
+
+    @Test
+    void caseVariantsShareOneEntry() {
+        cache.findByUsername("ALICE");
+        cache.findByUsername("Alice");
+        cache.findByUsername("ａｌｉｃｅ");
+
+        verify(userRepository, times(1)).findCredentialsByUsername(anyString());
+    }
+
+    @Test
+    void invalidatingStoredUsernameEvictsVariants() {
+        assertThat(cache.findByUsername("ALICE").orElseThrow().getBanned()).isFalse();
+
+        alice.setBanned(true);
+        cache.invalidate(alice.getId(), alice.getUsername());
+
+        assertThat(cache.findByUsername("ALICE").orElseThrow().getBanned()).isTrue();
+        verify(userRepository, times(2)).findCredentialsByUsername(anyString());
+    }
+}
@@ -0,0 +1,58 @@
+package com.zhihuixuexi.security;
+
+import com.zhihuixuexi.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 限流器：被限流的账号不消耗共享IP的额度，IP超限时不扣账号的额度
+ */
+class RateLimiterTest {
+
+    private static final String IP = "10.0.0.1";
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setIpCapacity(5);
+        rule.setIpRefillPerMinute(0);
+        rule.setKeyCapacity(2);
+        rule.setKeyRefillPerMinute(0);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEndpoints().put("login", rule);
+        rateLimiter = new RateLimiter(properties);
+    }
+
+    @Test
+    void throttledAccountDoesNotDrainIp() {
+        assertThat(rateLimiter.tryAcquire("login", IP, "alice")).isTrue();
+        assertThat(rateLimiter.tryAcquire("login", IP, "alice")).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.tryAcquire("login", IP, "ALICE")).isFalse();
+        }
+
+        // IP额度只被前两次成功的请求消耗，同一出口的其他账号仍可登录
+        assertThat(rateLimiter.tryAcquire("login", IP, "bob")).isTrue();
+        assertThat(rateLimiter.tryAcquire("login", IP, "carol")).isTrue();
+        assertThat(rateLimiter.tryAcquire("login", IP, "dave")).isTrue();
+        assertThat(rateLimiter.tryAcquire("login", IP, "erin")).isFalse();
+    }
+
+    @Test
+    void throttledIpRefundsAccountToken() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("login", IP, "user" + i)).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire("login", IP, "alice")).isFalse();
+        assertThat(rateLimiter.tryAcquire("login", IP, "alice")).isFalse();
+
+        // 从其他IP登录时账号额度仍完整
+        assertThat(rateLimiter.tryAcquire("login", "10.0.0.2", "alice")).isTrue();
+        assertThat(rateLimiter.tryAcquire("login", "10.0.0.2", "alice")).isTrue();
+        assertThat(rateLimiter.tryAcquire("login", "10.0.0.2", "alice")).isFalse();
+    }
+}
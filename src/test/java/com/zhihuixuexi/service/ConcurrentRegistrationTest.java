@@ -0,0 +1,152 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.dto.RegisterRequest;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.repository.UserRepository;
+import com.zhihuixuexi.support.AbstractMySqlTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * 并发注册测试：同一用户名/邮箱的并发注册只有一个成功插入，其余请求得到重复提示
+ * 不开启测试事务，每个注册请求在各自的事务中提交，由数据库唯一约束裁决
+ * 验证码校验被替换为总是通过（成功的注册会消费验证码，否则后到的请求可能因验证码已删除而失败）
+ */
+@SpringBootTest
+class ConcurrentRegistrationTest extends AbstractMySqlTest {
+
+    private static final int THREADS = 16;
+
+    private static final String CODE = "123456";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private VerificationCodeStore verificationCodeStore;
+
+    @BeforeEach
+    void acceptAnyCode() {
+        when(verificationCodeStore.verify(anyString(), anyString())).thenReturn(VerificationCodeStore.VerifyResult.OK);
+    }
+
+    @Test
+    void sameUsernameAndEmail() throws Exception {
+        String username = uniqueName("same");
+        String email = username + "@example.com";
+
+        List<String> failures = registerConcurrently(i -> request(username, email));
+
+        assertThat(failures).hasSize(THREADS - 1)
+                .allMatch(message -> message.equals("用户名已存在") || message.equals("邮箱已被注册"));
+        assertThat(countUsers(username, null)).isEqualTo(1);
+        assertThat(countUsers(null, email)).isEqualTo(1);
+    }
+
+    @Test
+    void sameUsernameDifferentEmails() throws Exception {
+        String username = uniqueName("name");
+
+        List<String> failures = registerConcurrently(i -> request(username, username + "-" + i + "@example.com"));
+
+        assertThat(failures).hasSize(THREADS - 1).containsOnly("用户名已存在");
+        assertThat(countUsers(username, null)).isEqualTo(1);
+    }
+
+    @Test
+    void sameEmailDifferentUsernames() throws Exception {
+        String prefix = uniqueName("mail");
+        String email = prefix + "@example.com";
+
+        List<String> failures = registerConcurrently(i -> request(prefix + "-" + i, email));
+
+        assertThat(failures).hasSize(THREADS - 1).containsOnly("邮箱已被注册");
+        assertThat(countUsers(null, email)).isEqualTo(1);
+    }
+
+    /**
+     * 所有线程就绪后同时注册，返回失败请求的提示信息
+     */
+    private List<String> registerConcurrently(IntFunction<RegisterRequest> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                RegisterRequest request = requests.apply(i);
+                Callable<Object> task = () -> {
+                    ready.countDown();
+                    start.await();
+                    return authService.register(request, CODE);
+                };
+                futures.add(executor.submit(task));
+            }
+            assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+            start.countDown();
+
+            List<String> failures = new ArrayList<>();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof RuntimeException)) {
+                        fail("注册抛出了非预期的异常", e.getCause());
+                    }
+                    failures.add(e.getCause().getMessage());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RegisterRequest request(String username, String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setPassword("password123");
+        request.setEmail(email);
+        request.setVerificationCode(CODE);
+        request.setRole(UserRole.STUDENT);
+        return request;
+    }
+
+    private long countUsers(String username, String email) {
+        Specification<User> spec = (root, query, cb) -> username != null
+                ? cb.equal(root.get("username"), username)
+                : cb.equal(root.get("email"), email);
+        return userRepository.count(spec);
+    }
+
+    /**
+     * 每个用例使用不同的用户名，共享容器中无需清理
+     */
+    private static String uniqueName(String prefix) {
+        return prefix + Long.toString(System.nanoTime(), 36);
+    }
+}
@@ -0,0 +1,168 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.dto.PageResponse;
+import com.zhihuixuexi.dto.TaskDTO;
+import com.zhihuixuexi.dto.TaskQueryRequest;
+import com.zhihuixuexi.entity.Chapter;
+import com.zhihuixuexi.entity.Course;
+import com.zhihuixuexi.entity.Task;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.TotalMode;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.support.AbstractMySqlTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务查询的SQL语句数：列表和详情各只执行一条SELECT（精确分页另加一条COUNT），不随记录数产生N+1查询
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({TaskService.class, PageQueryService.class, CourseTaskCache.class, TaskDetailCache.class,
+        TaskQueryStatementCountTest.MetricsConfig.class})
+class TaskQueryStatementCountTest extends AbstractMySqlTest {
+
+    private static final int TASKS = 25;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User creator;
+
+    private Course course;
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        String name = "creator" + Long.toString(System.nanoTime(), 36);
+        creator = new User();
+        creator.setUsername(name);
+        creator.setPassword("password");
+        creator.setEmail(name + "@example.com");
+        creator.setRole(UserRole.INSTITUTION);
+        entityManager.persist(creator);
+
+        course = new Course();
+        course.setTitle("课程");
+        course.setCreator(creator);
+        entityManager.persist(course);
+
+        Chapter chapter = new Chapter();
+        chapter.setTitle("章节");
+        chapter.setCourse(course);
+        entityManager.persist(chapter);
+
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task();
+            t.setTitle("任务" + i);
+            t.setContent("内容" + i);
+            t.setCourse(course);
+            t.setChapter(i % 2 == 0 ? chapter : null);
+            t.setCreator(creator);
+            t.setPublished(true);
+            task = entityManager.persist(t);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void myTasksExactPage() {
+        PageResponse<TaskDTO> page = countStatements(2, () -> taskService.getMyTasks(creator.getId(), query(1)));
+        assertThat(page.getRecords()).hasSize(10);
+        assertThat(page.getTotal()).isEqualTo(TASKS);
+    }
+
+    @Test
+    void myTasksLastPageSkipsCount() {
+        // 最后一页不满时总数可由偏移量推算，不执行COUNT
+        PageResponse<TaskDTO> page = countStatements(1, () -> taskService.getMyTasks(creator.getId(), query(3)));
+        assertThat(page.getRecords()).hasSize(TASKS - 20);
+    }
+
+    @Test
+    void myTasksCursorPage() {
+        TaskQueryRequest request = query(1);
+        request.setCursor("");
+        PageResponse<TaskDTO> page = countStatements(1, () -> taskService.getMyTasks(creator.getId(), request));
+        assertThat(page.getRecords()).hasSize(10);
+    }
+
+    @Test
+    void myTasksWithoutCount() {
+        TaskQueryRequest request = query(1);
+        request.setTotal(TotalMode.NONE);
+        countStatements(1, () -> taskService.getMyTasks(creator.getId(), request));
+    }
+
+    @Test
+    void taskDetailLoadedOnceThenCached() {
+        countStatements(1, () -> taskService.getTaskResponse(task.getId()));
+        countStatements(0, () -> taskService.getTaskResponse(task.getId()));
+    }
+
+    @Test
+    void courseTasksLoadedOnceThenCached() {
+        countStatements(1, () -> taskService.getCourseTasksResponse(course.getId()));
+        countStatements(0, () -> taskService.getCourseTasksResponse(course.getId()));
+    }
+
+    private TaskQueryRequest query(int page) {
+        TaskQueryRequest request = new TaskQueryRequest();
+        request.setPage(page);
+        request.setSize(10);
+        request.setTotal(TotalMode.EXACT);
+        return request;
+    }
+
+    /**
+     * 执行调用并断言期间准备的SQL语句数
+     */
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        entityManager.clear();
+        statistics.clear();
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL语句数")
+                .isEqualTo(expected);
+        return result;
+    }
+}
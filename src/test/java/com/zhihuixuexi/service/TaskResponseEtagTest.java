@@ -0,0 +1,136 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.dto.SerializedResponse;
+import com.zhihuixuexi.entity.Course;
+import com.zhihuixuexi.entity.Task;
+import com.zhihuixuexi.entity.User;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.support.AbstractMySqlTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 课程改名后，任务响应的ETag与响应体同时变化：缓存刷新前二者都是旧的，刷新后都是新的
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({TaskService.class, PageQueryService.class, CourseTaskCache.class, TaskDetailCache.class,
+        TaskResponseEtagTest.MetricsConfig.class})
+class TaskResponseEtagTest extends AbstractMySqlTest {
+
+    private static final String OLD_TITLE = "旧课程名";
+
+    private static final String NEW_TITLE = "新课程名";
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CourseTaskCache courseTaskCache;
+
+    @Autowired
+    private TaskDetailCache taskDetailCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Course course;
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        String name = "creator" + Long.toString(System.nanoTime(), 36);
+        User creator = new User();
+        creator.setUsername(name);
+        creator.setPassword("password");
+        creator.setEmail(name + "@example.com");
+        creator.setRole(UserRole.INSTITUTION);
+        entityManager.persist(creator);
+
+        course = new Course();
+        course.setTitle(OLD_TITLE);
+        course.setCreator(creator);
+        entityManager.persist(course);
+
+        task = new Task();
+        task.setTitle("任务");
+        task.setContent("内容");
+        task.setCourse(course);
+        task.setCreator(creator);
+        task.setPublished(true);
+        entityManager.persist(task);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void courseRenameChangesCourseTasksEtagWithBody() {
+        SerializedResponse before = taskService.getCourseTasksResponse(course.getId());
+        assertThat(json(before)).contains(OLD_TITLE);
+
+        renameCourse();
+
+        // 缓存刷新前：旧内容配旧ETag
+        SerializedResponse cached = taskService.getCourseTasksResponse(course.getId());
+        assertThat(cached.getEtag()).isEqualTo(before.getEtag());
+        assertThat(json(cached)).contains(OLD_TITLE);
+
+        // 缓存刷新后（TTL到期，这里直接失效）：新内容配新ETag
+        courseTaskCache.invalidate(course.getId());
+        SerializedResponse after = taskService.getCourseTasksResponse(course.getId());
+        assertThat(after.getEtag()).isNotEqualTo(before.getEtag());
+        assertThat(json(after)).contains(NEW_TITLE).doesNotContain(OLD_TITLE);
+    }
+
+    @Test
+    void courseRenameChangesTaskDetailEtagWithBody() {
+        SerializedResponse before = taskService.getTaskResponse(task.getId());
+        assertThat(json(before)).contains(OLD_TITLE);
+
+        renameCourse();
+
+        SerializedResponse cached = taskService.getTaskResponse(task.getId());
+        assertThat(cached.getEtag()).isEqualTo(before.getEtag());
+        assertThat(json(cached)).contains(OLD_TITLE);
+
+        taskDetailCache.invalidate(task.getId());
+        SerializedResponse after = taskService.getTaskResponse(task.getId());
+        assertThat(after.getEtag()).isNotEqualTo(before.getEtag());
+        assertThat(json(after)).contains(NEW_TITLE).doesNotContain(OLD_TITLE);
+    }
+
+    private void renameCourse() {
+        entityManager.find(Course.class, course.getId()).setTitle(NEW_TITLE);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static String json(SerializedResponse response) {
+        return new String(response.getJson(), StandardCharsets.UTF_8);
+    }
+}
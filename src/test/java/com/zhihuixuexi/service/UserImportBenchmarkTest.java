@@ -0,0 +1,67 @@
+package com.zhihuixuexi.service;
+
+import com.zhihuixuexi.dto.UserImportResult;
+import com.zhihuixuexi.enums.DataFormat;
+import com.zhihuixuexi.enums.UserRole;
+import com.zhihuixuexi.support.AbstractMySqlTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量导入基准：导入10万行CSV并输出吞吐量
+ * 默认不运行，使用 mvn test -Dbenchmark=true -Dtest=UserImportBenchmarkTest 执行；
+ * 行数通过 -Dbenchmark.rows 调整，BCrypt成本因子通过 -Dbenchmark.bcrypt-strength 调整（默认4，只衡量解析、查重和批量插入）
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "password.bcrypt-strength=${benchmark.bcrypt-strength:4}")
+class UserImportBenchmarkTest extends AbstractMySqlTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Test
+    void importLargeCsv(@TempDir Path dir) throws IOException {
+        int rows = Integer.getInteger("benchmark.rows", 100_000);
+        Path csv = writeCsv(dir.resolve("users.csv"), rows, "bench" + Long.toString(System.nanoTime(), 36));
+
+        long start = System.nanoTime();
+        UserImportResult result;
+        try (InputStream input = Files.newInputStream(csv)) {
+            result = userImportService.importUsers(input, DataFormat.CSV, UserRole.STUDENT);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        log.info("导入基准 rows={} elapsed={}ms throughput={} rows/s",
+                rows, elapsedMillis, rows * 1000L / elapsedMillis);
+        assertThat(result.getTotal()).isEqualTo(rows);
+        assertThat(result.getImported()).isEqualTo(rows);
+        assertThat(result.getFailed()).isZero();
+    }
+
+    private static Path writeCsv(Path file, int rows, String prefix) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("username,email,password,organization");
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                String username = prefix + "_" + i;
+                writer.write(username + "," + username + "@example.com,password" + i + ",基准测试学校");
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+}
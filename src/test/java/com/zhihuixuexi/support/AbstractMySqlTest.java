@@ -0,0 +1,31 @@
+package com.zhihuixuexi.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * MySQL集成测试基类
+ * 同一JVM内的测试类共享一个 MySQL 8 容器（Spring 上下文缓存依赖固定的连接地址），没有Docker时跳过
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class AbstractMySqlTest {
+
+    protected static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    static {
+        MYSQL.start();
+    }
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        // 与 application.yml 相同的连接参数（游标读取、批量改写）
+        registry.add("spring.datasource.url", () -> MYSQL.getJdbcUrl()
+                + "?useUnicode=true&characterEncoding=utf8&useSSL=false&allowPublicKeyRetrieval=true"
+                + "&useCursorFetch=true&rewriteBatchedStatements=true");
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+}
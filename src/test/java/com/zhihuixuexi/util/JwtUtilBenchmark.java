@@ -0,0 +1,102 @@
+package com.zhihuixuexi.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT解析性能对比（JMH）：每次调用重建密钥和解析器（优化前）、预构建解析器、Claims缓存命中
+ * 运行方式：mvn test-compile 后执行 main 方法
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    /**
+     * 与 application.yml 中 jwt.secret 长度相当的密钥
+     */
+    private static final String SECRET = "zhihuixuexi-secret-key-for-jwt-token-generation-2025-with-additional-"
+            + "secure-random-string-to-meet-minimum-length-requirement";
+
+    private JwtUtil jwtUtil;
+
+    private JwtParser parser;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 10_000L);
+        jwtUtil.init();
+
+        token = jwtUtil.generateToken("benchmark", 1L, "STUDENT", 0);
+        parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        // 预热缓存，cachedClaims 只测命中路径
+        jwtUtil.getClaimsFromToken(token);
+    }
+
+    /**
+     * 优化前：每次解析都重新构建密钥和解析器
+     */
+    @Benchmark
+    public Claims rebuildParserPerCall() {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    /**
+     * 复用预构建的解析器，每次仍验签
+     */
+    @Benchmark
+    public Claims precomputedParser() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * JwtUtil 当前实现：命中Claims缓存时只计算Token摘要
+     */
+    @Benchmark
+    public Claims cachedClaims() {
+        return jwtUtil.getClaimsFromToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,44 @@
+package com.zhihuixuexi.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 三元组索引的匹配结果与数据库 *_ai_ci 排序规则下的 LIKE 一致
+ */
+class TrigramIndexTest {
+
+    @Test
+    void ignoresCaseAndAccents() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "José Martínez");
+        index.put(2L, "JOSEPH");
+        index.put(3L, "Müller");
+
+        assertThat(index.search("jose")).containsExactly(1L, 2L);
+        assertThat(index.search("MARTINEZ")).containsExactly(1L);
+        assertThat(index.search("mül")).containsExactly(3L);
+        assertThat(index.search("mul")).containsExactly(3L);
+        assertThat(index.matches(1L, "josé")).isTrue();
+    }
+
+    @Test
+    void ignoresFullWidth() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "ＡＢＣ大学");
+
+        assertThat(index.search("abc")).containsExactly(1L);
+        assertThat(index.search("ｂｃ大")).containsExactly(1L);
+    }
+
+    @Test
+    void keepsHangulSyllablesWhole() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "각나다");
+
+        // "가" 不是 "각" 的子串，折叠时不能把音节拆成字母
+        assertThat(index.search("가나다")).isEmpty();
+        assertThat(index.search("각나다")).containsExactly(1L);
+    }
+}